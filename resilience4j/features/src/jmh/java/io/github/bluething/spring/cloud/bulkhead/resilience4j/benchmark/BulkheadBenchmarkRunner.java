@@ -0,0 +1,34 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class BulkheadBenchmarkRunner {
+    static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        File reportDir = new File(args.length > 1 ? args[1] : "build/reports/jmh");
+        reportDir.mkdirs();
+
+        String threadCounts = System.getProperty("jmh.threads");
+        int[] sweep = threadCounts == null ? THREAD_COUNTS : Arrays.stream(threadCounts.split(",")).mapToInt(Integer::parseInt).toArray();
+        for (int threads : sweep) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(reportDir, "bulkhead-threads-" + threads + ".json").getPath());
+            if (args.length > 2) {
+                options.addProfiler(args[2]);
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.benchmark;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.AirportCode;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.CompactSearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightBuffer;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightBufferPool;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightDate;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightNumber;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Priority;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a search request and a result of {@code resultCount} flights, once with {@link SearchRequest} and a
+ * list of {@link Flight} objects and once with {@link CompactSearchRequest} and a pooled {@link FlightBuffer},
+ * then reads every flight. Run it with {@code -PjmhProfiler=gc} to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactFlightBenchmark {
+    @Param({"2", "100", "1000"})
+    int resultCount;
+
+    String[] flightNumbers;
+    int[] packedFlightNumbers;
+    int from;
+    int to;
+    int flightDay;
+    FlightBufferPool flightBufferPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        flightNumbers = new String[resultCount];
+        packedFlightNumbers = new int[resultCount];
+        for (int i = 0; i < resultCount; i++) {
+            flightNumbers[i] = "XY " + (100 + i);
+            packedFlightNumbers[i] = FlightNumber.pack(flightNumbers[i]);
+        }
+        from = AirportCode.pack("NYC");
+        to = AirportCode.pack("LAX");
+        flightDay = FlightDate.pack("07/03/2021");
+        flightBufferPool = new FlightBufferPool(64, resultCount);
+    }
+
+    @Benchmark
+    public void flights(Blackhole blackhole) {
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+        List<Flight> flights = new ArrayList<>();
+        for (String flightNumber : flightNumbers) {
+            flights.add(new Flight(flightNumber, searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()));
+        }
+        for (Flight flight : flights) {
+            blackhole.consume(flight);
+        }
+    }
+
+    @Benchmark
+    public void flightBuffer(Blackhole blackhole) {
+        CompactSearchRequest searchRequest = new CompactSearchRequest(from, to, flightDay, Priority.NORMAL);
+        FlightBuffer flights = flightBufferPool.acquire();
+        for (int flightNumber : packedFlightNumbers) {
+            flights.add(flightNumber, searchRequest.getFlightDay(), searchRequest.getFrom(), searchRequest.getTo());
+        }
+        FlightBuffer.Cursor cursor = flights.cursor();
+        while (cursor.next()) {
+            blackhole.consume(cursor.flightNumber());
+        }
+        flightBufferPool.release(flights);
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.benchmark;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.BulkheadOperator;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.NonBlockingService;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.SingleSubscriber;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.core.NamingThreadFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends {@code concurrency} searches of {@code latencyMillis} each at once and waits for all of them, through
+ * the blocking path of {@code SemaphoreBulkHead} (a thread pool of {@code blockingThreads} sleeping threads)
+ * and through {@link BulkheadOperator} on a single timer thread. Both go through a bulkhead with no wait that
+ * is sized to {@code concurrency}, so every search is admitted and both paths do the same work: the blocking
+ * path is limited by its threads, the reactive one by nothing but the timer. The {@code rejected} counter stays
+ * at zero, a non-zero value means the score includes fast rejections and is not comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactiveBulkheadBenchmark {
+    @Param({"64", "1024"})
+    int concurrency;
+
+    @Param({"32"})
+    int blockingThreads;
+
+    @Param({"10"})
+    long latencyMillis;
+
+    ExecutorService blockingExecutor;
+    ScheduledExecutorService eventLoop;
+    Supplier<List<Flight>> decoratedFlightSupplier;
+    Flow.Publisher<List<Flight>> decoratedFlightPublisher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(concurrency)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+        blockingExecutor = Executors.newFixedThreadPool(blockingThreads, new NamingThreadFactory("blocking"));
+        Supplier<List<Flight>> flightSupplier = () -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Arrays.asList(new Flight("XY 765", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()),
+                    new Flight("XY 746", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()));
+        };
+        decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkheadRegistry.bulkhead("blocking"), flightSupplier);
+
+        eventLoop = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("event-loop"));
+        NonBlockingService flightSearchService = new NonBlockingService(eventLoop, DateTimeFormatter.ofPattern("HH:mm:ss SSS"));
+        decoratedFlightPublisher = BulkheadOperator.decoratePublisher(bulkheadRegistry.bulkhead("reactive"),
+                flightSearchService.searchFlights(searchRequest, Duration.ofMillis(latencyMillis)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blockingExecutor.shutdownNow();
+        eventLoop.shutdownNow();
+    }
+
+    @Benchmark
+    public Object blocking(Outcomes outcomes) {
+        CompletableFuture<?>[] searches = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            searches[i] = CompletableFuture.supplyAsync(decoratedFlightSupplier, blockingExecutor);
+        }
+        return outcomes.count(searches);
+    }
+
+    @Benchmark
+    public Object reactive(Outcomes outcomes) {
+        CompletableFuture<?>[] searches = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            searches[i] = SingleSubscriber.toFuture(decoratedFlightPublisher);
+        }
+        return outcomes.count(searches);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long completed;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            completed = 0;
+            rejected = 0;
+        }
+
+        Object count(CompletableFuture<?>[] searches) {
+            CompletableFuture.allOf(searches).exceptionally(t -> null).join();
+            for (CompletableFuture<?> search : searches) {
+                if (search.isCompletedExceptionally()) {
+                    rejected++;
+                } else {
+                    completed++;
+                }
+            }
+            return searches;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.benchmark;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemaphoreBulkheadBenchmark {
+    @Param({"1", "8", "64"})
+    int maxConcurrentCalls;
+
+    @Param({"true", "false"})
+    boolean fairCallHandlingEnabled;
+
+    @Param({"true", "false"})
+    boolean writableStackTraceEnabled;
+
+    @Param({"100"})
+    long payloadTokens;
+
+    Bulkhead bulkhead;
+    Supplier<Long> decoratedSupplier;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .fairCallHandlingStrategyEnabled(fairCallHandlingEnabled)
+                .writableStackTraceEnabled(writableStackTraceEnabled)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        Supplier<Long> payload = () -> {
+            Blackhole.consumeCPU(payloadTokens);
+            return payloadTokens;
+        };
+        decoratedSupplier = Bulkhead.decorateSupplier(bulkhead, payload);
+    }
+
+    @Benchmark
+    public boolean acquireRelease() {
+        if (bulkhead.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public Object decorateSupplier() {
+        try {
+            return decoratedSupplier.get();
+        } catch (BulkheadFullException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.benchmark;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.workstealing.WorkStealingThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadPoolBulkheadBenchmark {
+    @Param({"fixed", "workStealing"})
+    String implementation;
+
+    @Param({"2", "8"})
+    int maxThreadPoolSize;
+
+    @Param({"1", "16", "256"})
+    int queueCapacity;
+
+    @Param({"true", "false"})
+    boolean writableStackTraceEnabled;
+
+    @Param({"100"})
+    long payloadTokens;
+
+    ThreadPoolBulkhead bulkhead;
+    Supplier<CompletionStage<Long>> decoratedSupplier;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(maxThreadPoolSize)
+                .coreThreadPoolSize(maxThreadPoolSize)
+                .queueCapacity(queueCapacity)
+                .writableStackTraceEnabled(writableStackTraceEnabled)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        bulkhead = "workStealing".equals(implementation)
+                ? WorkStealingThreadPoolBulkhead.register(threadPoolBulkheadRegistry, "flightSearchService")
+                : threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+
+        Supplier<Long> payload = () -> {
+            Blackhole.consumeCPU(payloadTokens);
+            return payloadTokens;
+        };
+        decoratedSupplier = ThreadPoolBulkhead.decorateSupplier(bulkhead, payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        bulkhead.close();
+    }
+
+    // with many benchmark threads the queue can still fill up, the counters tell how many calls were run
+    @Benchmark
+    public Object submitAndJoin(Submissions submissions) {
+        try {
+            Long result = decoratedSupplier.get().toCompletableFuture().join();
+            submissions.accepted++;
+            return result;
+        } catch (BulkheadFullException e) {
+            submissions.rejected++;
+            return e;
+        }
+    }
+
+    // fire and forget against a bounded queue, most submissions are rejected once the queue is full, so the
+    // accepted and rejected counters tell the cost of a submission from the cost of a BulkheadFullException
+    @Benchmark
+    public Object submit(Submissions submissions) {
+        try {
+            CompletionStage<Long> accepted = decoratedSupplier.get();
+            submissions.accepted++;
+            return accepted;
+        } catch (BulkheadFullException e) {
+            submissions.rejected++;
+            return e;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Submissions {
+        public long accepted;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accepted = 0;
+            rejected = 0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive.AdaptiveBulkhead;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive.AimdLimit;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive.GradientLimit;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive.TaggedAdaptiveBulkheadMetrics;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class AdaptiveBulkheadSample {
+    void adaptiveAimd() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(8)
+                .maxWaitDuration(Duration.ofSeconds(3))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        AimdLimit aimdLimit = AimdLimit.custom()
+                .minLimit(2)
+                .maxLimit(16)
+                .latencyThreshold(Duration.ofMillis(1500))
+                .build();
+        Bulkhead bulkhead = AdaptiveBulkhead.register(bulkheadRegistry, "flightSearchService", aimdLimit);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedAdaptiveBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+
+        bulkhead.getEventPublisher()
+                .onCallFinished(event -> System.out.println("Limit " + meterRegistry.get(TaggedAdaptiveBulkheadMetrics.DEFAULT_ADAPTIVE_LIMIT_METRIC_NAME).gauge().value()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingRandomTime(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkheadRegistry.bulkhead("flightSearchService"), flightSupplier);
+
+        for (int i = 0; i < 12; i++) {
+            CompletableFuture.supplyAsync(decoratedFlightSupplier)
+                    .whenComplete((r, t) -> {
+                        if (t != null) {
+                            Throwable cause = t.getCause();
+                            if (cause != null) {
+                                cause.printStackTrace();
+                            }
+                        }
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                    });
+        }
+    }
+    void adaptiveGradient() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(4)
+                .maxWaitDuration(Duration.ofSeconds(3))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        AdaptiveBulkhead bulkhead = AdaptiveBulkhead.register(bulkheadRegistry, "flightSearchService", GradientLimit.ofDefaults());
+
+        bulkhead.getEventPublisher()
+                .onCallFinished(event -> System.out.println("Limit " + bulkhead.getLimit()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingRandomTime(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkhead, flightSupplier);
+
+        for (int i = 0; i < 8; i++) {
+            CompletableFuture.supplyAsync(decoratedFlightSupplier)
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                    });
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        AdaptiveBulkheadSample adaptiveBulkhead = new AdaptiveBulkheadSample();
+        adaptiveBulkhead.adaptiveAimd();
+        delay(10);
+        System.out.println(" ====== ");
+        adaptiveBulkhead.adaptiveGradient();
+        delay(10);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.batch.MicroBatcher;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+public class BatchingSample {
+    void batchingBasicUsage() {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(2)
+                .coreThreadPoolSize(1)
+                .queueCapacity(1)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+
+        bulkhead.getEventPublisher().onCallPermitted(event -> System.out.println(event.toString()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        MicroBatcher<SearchRequest, List<Flight>> batcher = new MicroBatcher<>("flightSearchService", 8, Duration.ofMillis(20),
+                searchRequests -> bulkhead.executeCallable(() -> flightSearchService.searchFlightsInBatchTakingOneSecond(searchRequests)));
+
+        String[] destinations = {"LAX", "SFO", "SEA", "ORD", "MIA", "BOS", "DEN", "ATL", "IAD", "DFW", "PHX", "LAS"};
+        for (String destination : destinations) {
+            batcher.submit(new SearchRequest("NYC", destination, "07/06/2021"))
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results for " + destination);
+                        }
+                        if (t != null) {
+                            t.printStackTrace();
+                        }
+                    });
+        }
+        batcher.close();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        BatchingSample batching = new BatchingSample();
+        batching.batchingBasicUsage();
+        delay(3);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
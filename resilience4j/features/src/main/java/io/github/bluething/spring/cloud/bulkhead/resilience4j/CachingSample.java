@@ -0,0 +1,84 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.cache.StaleWhileRevalidateCache;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+public class CachingSample {
+    void cacheWithStaleWhileRevalidate() throws InterruptedException {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+
+        bulkhead.getEventPublisher()
+                .onCallPermitted(event -> System.out.println(event.toString()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        StaleWhileRevalidateCache<SearchRequest, List<Flight>> cache = StaleWhileRevalidateCache.<SearchRequest, List<Flight>>custom("flightSearchService",
+                searchRequest -> bulkhead.executeCompletionStage(() -> CompletableFuture.supplyAsync(() -> {
+                    List<Flight> flights = new ArrayList<>();
+                    try {
+                        flights = flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                    return flights;
+                })), meterRegistry)
+                .maximumSize(2)
+                .refreshAfter(Duration.ofSeconds(2))
+                .timeToLive(Duration.ofSeconds(10))
+                .build();
+
+        String[] destinations = {"LAX", "LAX", "SFO", "LAX", "SEA", "LAX"};
+        for (String destination : destinations) {
+            cache.get(new SearchRequest("NYC", destination, "07/05/2021"))
+                    .thenAccept(flights -> System.out.println("Received results for " + destination));
+            Thread.sleep(1200);
+        }
+        printMetricDetails(meterRegistry);
+    }
+    void printMetricDetails(MeterRegistry meterRegistry) {
+        Consumer<Meter> meterConsumer = meter -> {
+            String desc = meter.getId().getDescription();
+            String metricName = meter.getId().getName();
+            String tags = meter.getId().getTags().toString();
+            Double metricValue = StreamSupport.stream(meter.measure().spliterator(), false)
+                    .findFirst()
+                    .map(m -> m.getValue())
+                    .orElse(0.0);
+            System.out.println(desc + " - " + metricName + tags + ": " + metricValue);
+        };
+        meterRegistry.forEachMeter(meterConsumer);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CachingSample caching = new CachingSample();
+        caching.cacheWithStaleWhileRevalidate();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.codel.CoDelThreadPoolBulkhead;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class CoDelSample {
+    // 2 threads and 200ms searches serve 10 calls a second, the samples send 20 a second for 4 seconds
+    void overload(String label, ThreadPoolBulkhead bulkhead) throws InterruptedException {
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlights(searchRequest, Duration.ofMillis(200));
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = ThreadPoolBulkhead.decorateSupplier(bulkhead, flightSupplier);
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<List<Flight>>> searches = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            long start = System.nanoTime();
+            try {
+                searches.add(decoratedFlightSupplier.get().toCompletableFuture().whenComplete((r, t) -> {
+                    if (t != null) {
+                        rejected.incrementAndGet();
+                    } else {
+                        completed.incrementAndGet();
+                        latencies.add((System.nanoTime() - start) / 1_000_000);
+                    }
+                }));
+            } catch (BulkheadFullException e) {
+                rejected.incrementAndGet();
+            }
+            Thread.sleep(50);
+        }
+        CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).exceptionally(t -> null).join();
+        Collections.sort(latencies);
+        System.out.println(label + ": " + completed.get() + " completed, " + rejected.get() + " rejected, median "
+                + latencies.get(latencies.size() / 2) + "ms, max " + latencies.get(latencies.size() - 1) + "ms");
+    }
+
+    public static void main(String[] args) throws Exception {
+        ThreadPoolBulkheadConfig config = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(2)
+                .coreThreadPoolSize(2)
+                .queueCapacity(100)
+                .writableStackTraceEnabled(false)
+                .build();
+        ThreadPoolBulkheadRegistry registry = ThreadPoolBulkheadRegistry.of(config);
+        CoDelSample coDelSample = new CoDelSample();
+
+        ThreadPoolBulkhead fixedBulkhead = registry.bulkhead("fixedFlightSearch");
+        coDelSample.overload("Fixed", fixedBulkhead);
+        fixedBulkhead.close();
+
+        CoDelThreadPoolBulkhead coDelBulkhead = CoDelThreadPoolBulkhead.register(registry, "coDelFlightSearch",
+                Duration.ofMillis(100), Duration.ofMillis(500), false);
+        coDelSample.overload("CoDel", coDelBulkhead);
+        System.out.println("CoDel dropped " + coDelBulkhead.getDroppedCount() + " queued calls");
+        coDelBulkhead.close();
+
+        CoDelThreadPoolBulkhead lifoBulkhead = CoDelThreadPoolBulkhead.register(registry, "lifoFlightSearch",
+                Duration.ofMillis(100), Duration.ofMillis(500), true);
+        coDelSample.overload("CoDel with LIFO", lifoBulkhead);
+        System.out.println("CoDel with LIFO dropped " + lifoBulkhead.getDroppedCount() + " queued calls");
+        lifoBulkhead.close();
+    }
+}
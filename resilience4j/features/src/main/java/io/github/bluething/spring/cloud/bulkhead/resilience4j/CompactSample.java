@@ -0,0 +1,72 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.AirportCode;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.CompactSearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightBuffer;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightBufferPool;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightDate;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightNumber;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class CompactSample {
+    void compactWithPooledBuffers() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+        FlightBufferPool flightBufferPool = new FlightBufferPool(2, 16);
+
+        CompactSearchRequest searchRequest = CompactSearchRequest.of(new SearchRequest("NYC", "LAX", "07/03/2021"));
+        System.out.println("Searching " + searchRequest);
+
+        Supplier<FlightBuffer> flightSupplier = () -> {
+            FlightBuffer flights = flightBufferPool.acquire();
+            try {
+                flightSearchService.searchFlightsTakingOneSecond(searchRequest, flights);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<FlightBuffer> decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkhead, flightSupplier);
+
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture
+                    .supplyAsync(decoratedFlightSupplier)
+                    .thenAccept(flights -> {
+                        FlightBuffer.Cursor cursor = flights.cursor();
+                        while (cursor.next()) {
+                            System.out.println("Received " + FlightNumber.unpack(cursor.flightNumber()) + " on " + FlightDate.unpack(cursor.flightDay())
+                                    + " from " + AirportCode.unpack(cursor.from()) + " to " + AirportCode.unpack(cursor.to()));
+                        }
+                        flightBufferPool.release(flights);
+                    });
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CompactSample compactSample = new CompactSample();
+        compactSample.compactWithPooledBuffers();
+        delay(3);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
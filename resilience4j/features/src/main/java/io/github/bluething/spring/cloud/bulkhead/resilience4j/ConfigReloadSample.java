@@ -0,0 +1,96 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reload.BulkheadConfigReloader;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class ConfigReloadSample {
+    void reloadWhileBusy() throws IOException, InterruptedException {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(4)
+                .maxWaitDuration(Duration.ofSeconds(5))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(1)
+                .coreThreadPoolSize(1)
+                .queueCapacity(10)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        ThreadPoolBulkhead threadPoolBulkhead = threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+
+        Path configFile = Files.createTempFile("bulkhead", ".properties");
+        Files.write(configFile, List.of("bulkhead.flightSearchService.maxConcurrentCalls=4"));
+        BulkheadConfigReloader reloader = new BulkheadConfigReloader(configFile, bulkheadRegistry, threadPoolBulkheadRegistry);
+        reloader.start();
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkhead, flightSupplier);
+        for (int i = 0; i < 8; i++) {
+            CompletableFuture
+                    .supplyAsync(decoratedFlightSupplier)
+                    .thenAccept(flights -> System.out.println("Received results"));
+        }
+        for (int i = 0; i < 6; i++) {
+            ThreadPoolBulkhead.decorateSupplier(threadPoolBulkhead, flightSupplier)
+                    .get()
+                    .thenAccept(flights -> System.out.println("Received results from the thread pool"));
+        }
+
+        // calls in flight and calls already waiting keep their permits, the thread pool bulkhead is replaced by one
+        // with three threads and the queued tasks finish on the replaced one
+        delay(1);
+        Files.write(configFile, List.of(
+                "bulkhead.flightSearchService.maxConcurrentCalls=1",
+                "threadPoolBulkhead.flightSearchService.coreThreadPoolSize=3",
+                "threadPoolBulkhead.flightSearchService.maxThreadPoolSize=3"));
+        reloader.reload().join();
+        System.out.println("Max allowed concurrent calls " + bulkhead.getMetrics().getMaxAllowedConcurrentCalls()
+                + ", thread pool size " + threadPoolBulkheadRegistry.bulkhead("flightSearchService").getMetrics().getMaximumThreadPoolSize());
+        delay(5);
+        reloader.close();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ConfigReloadSample configReloadSample = new ConfigReloadSample();
+        configReloadSample.reloadWhileBusy();
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline.Deadline;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline.DeadlineAwareBulkhead;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline.DeadlineAwareThreadPoolBulkhead;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+public class DeadlineSample {
+    void semaphoreWithDeadline() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        DeadlineAwareBulkhead.register(bulkheadRegistry, "flightSearchService", Duration.ofSeconds(1));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkheadRegistry.bulkhead("flightSearchService"), flightSupplier);
+
+        // the last two calls would wait one second for a permit and miss their 1.5s deadline
+        int[] deadlineMillis = {1500, 1500, 3000, 1500, 1500};
+        for (int millis : deadlineMillis) {
+            Deadline deadline = Deadline.after(Duration.ofMillis(millis));
+            CompletableFuture
+                    .supplyAsync(deadline.bind(decoratedFlightSupplier))
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                        if (t != null) {
+                            System.out.println(t.getCause().getMessage());
+                        }
+                    });
+        }
+    }
+    void threadPoolWithDeadline() {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(1)
+                .coreThreadPoolSize(1)
+                .queueCapacity(4)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/06/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = DeadlineAwareThreadPoolBulkhead.decorateSupplier(bulkhead, flightSupplier);
+
+        // one thread runs the calls one by one. The second call is interrupted at its 1.5s deadline, the calls
+        // still queued at their deadline are skipped
+        for (int i = 0; i < 5; i++) {
+            Deadline deadline = Deadline.after(Duration.ofMillis(1500));
+            deadline.bind(decoratedFlightSupplier)
+                    .get()
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                        if (t != null) {
+                            System.out.println(t.getMessage());
+                        }
+                    });
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        DeadlineSample deadlineSample = new DeadlineSample();
+        deadlineSample.semaphoreWithDeadline();
+        delay(4);
+        System.out.println(" ====== ");
+        deadlineSample.threadPoolWithDeadline();
+        delay(4);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
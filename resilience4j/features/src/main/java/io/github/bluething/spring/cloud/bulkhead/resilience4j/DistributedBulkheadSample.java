@@ -0,0 +1,81 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.distributed.DistributedBulkhead;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.distributed.InMemoryPermitCoordinator;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class DistributedBulkheadSample {
+    void twoNodesSharingOneLimit() throws InterruptedException {
+        InMemoryPermitCoordinator coordinator = new InMemoryPermitCoordinator(4, Duration.ofSeconds(2));
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ofSeconds(3))
+                .build();
+
+        // every node has its own registry, as it would in its own JVM
+        DistributedBulkhead nodeA = DistributedBulkhead.register(BulkheadRegistry.of(bulkheadConfig), "flightSearchService", coordinator, "node-a", 2);
+        DistributedBulkhead nodeB = DistributedBulkhead.register(BulkheadRegistry.of(bulkheadConfig), "flightSearchService", coordinator, "node-b", 2);
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+
+        // eight calls, four at a time across both nodes
+        for (DistributedBulkhead node : new DistributedBulkhead[]{nodeA, nodeB}) {
+            Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(node, flightSupplier);
+            for (int i = 0; i < 4; i++) {
+                CompletableFuture
+                        .supplyAsync(decoratedFlightSupplier)
+                        .thenAccept(flights -> System.out.println("Received results on " + node.getNodeId()));
+            }
+        }
+        delay(4);
+        nodeA.close();
+        nodeB.close();
+        System.out.println("Available permits after close " + coordinator.getAvailablePermits());
+    }
+    void expiredLease() throws InterruptedException {
+        InMemoryPermitCoordinator coordinator = new InMemoryPermitCoordinator(4, Duration.ofSeconds(1));
+
+        // a node that leased permits and died without giving them back
+        coordinator.lease("node-c", 3);
+        System.out.println("Available permits while node-c is alive " + coordinator.getAvailablePermits());
+        delay(2);
+        System.out.println("Available permits after node-c's lease expired " + coordinator.getAvailablePermits());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        DistributedBulkheadSample distributedBulkhead = new DistributedBulkheadSample();
+        distributedBulkhead.twoNodesSharingOneLimit();
+        System.out.println(" ====== ");
+        distributedBulkhead.expiredLease();
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.hedge.HedgingBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.core.NamingThreadFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class HedgingSample {
+    void hedgingRandomLatency() throws InterruptedException {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(25)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService executorService = Executors.newCachedThreadPool(new NamingThreadFactory("flightSearch"));
+        HedgingBulkhead hedgingBulkhead = HedgingBulkhead.custom(bulkhead, executorService, meterRegistry)
+                .percentile(0.75)
+                .initialDelay(Duration.ofMillis(1500))
+                .minSamples(16)
+                .maxHedgeRatio(0.3)
+                .build();
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        // the losing attempt is interrupted, which is not an error here
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingRandomTime(searchRequest);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return flights;
+        };
+        Supplier<CompletableFuture<List<Flight>>> decoratedFlightSupplier = hedgingBulkhead.decorateSupplier(flightSupplier);
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<List<Flight>>> searches = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            long start = System.nanoTime();
+            searches.add(decoratedFlightSupplier.get()
+                    .whenComplete((r, t) -> latencies.add((System.nanoTime() - start) / 1_000_000)));
+            Thread.sleep(100);
+        }
+        CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).join();
+
+        Collections.sort(latencies);
+        System.out.println("Median " + latencies.get(latencies.size() / 2) + "ms, max " + latencies.get(latencies.size() - 1) + "ms");
+        System.out.println("Hedge delay " + hedgingBulkhead.getHedgeDelay().toMillis() + "ms, hedge rate " + hedgingBulkhead.getHedgeRate()
+                + ", win rate " + hedgingBulkhead.getWinRate());
+        hedgingBulkhead.close();
+        executorService.shutdown();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        HedgingSample hedgingSample = new HedgingSample();
+        hedgingSample.hedgingRandomLatency();
+    }
+}
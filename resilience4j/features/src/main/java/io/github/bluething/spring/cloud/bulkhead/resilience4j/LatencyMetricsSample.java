@@ -0,0 +1,123 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.metrics.TaggedBulkheadLatencyMetrics;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class LatencyMetricsSample {
+    void semaphoreLatencyMetrics() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedBulkheadLatencyMetrics latencyMetrics = TaggedBulkheadLatencyMetrics.ofBulkheadRegistry(bulkheadRegistry);
+        latencyMetrics.bindTo(meterRegistry);
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = latencyMetrics.decorateSupplier(bulkhead, flightSupplier);
+
+        List<CompletableFuture<List<Flight>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(CompletableFuture.supplyAsync(decoratedFlightSupplier));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        printTimerDetails(meterRegistry);
+    }
+    void threadPoolLatencyMetrics() {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(2)
+                .coreThreadPoolSize(1)
+                .queueCapacity(2)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedBulkheadLatencyMetrics latencyMetrics = TaggedBulkheadLatencyMetrics.ofThreadPoolBulkheadRegistry(threadPoolBulkheadRegistry);
+        latencyMetrics.bindTo(meterRegistry);
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/06/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = latencyMetrics.decorateSupplier(bulkhead, flightSupplier);
+
+        List<CompletableFuture<List<Flight>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(decoratedFlightSupplier.get().toCompletableFuture());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        printTimerDetails(meterRegistry);
+    }
+    void printTimerDetails(MeterRegistry meterRegistry) {
+        meterRegistry.forEachMeter(meter -> {
+            if (!(meter instanceof Timer)) {
+                return;
+            }
+            Timer timer = (Timer) meter;
+            StringBuilder percentiles = new StringBuilder();
+            for (ValueAtPercentile valueAtPercentile : timer.takeSnapshot().percentileValues()) {
+                percentiles.append(" p").append(valueAtPercentile.percentile() * 100)
+                        .append('=').append(valueAtPercentile.value(TimeUnit.MILLISECONDS)).append("ms");
+            }
+            System.out.println(timer.getId().getName() + " " + timer.getId().getTags() + " count=" + timer.count() + percentiles);
+        });
+    }
+
+    public static void main(String[] args) {
+        LatencyMetricsSample latencyMetrics = new LatencyMetricsSample();
+        latencyMetrics.semaphoreLatencyMetrics();
+        System.out.println(" ====== ");
+        latencyMetrics.threadPoolLatencyMetrics();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest.ArrivalRate;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest.LatencyDistribution;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest.LoadGenerator;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest.LoadResult;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest.LoadTarget;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class LoadTestSample {
+    private final Random random = new Random();
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+    private final Service flightSearchService = new Service(random, dateTimeFormatter);
+    private final SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+    Supplier<List<Flight>> flightSupplier(LatencyDistribution latency) {
+        return () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlights(searchRequest, latency.sample());
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+    }
+
+    LoadResult semaphore(int maxConcurrentCalls, Duration maxWaitDuration, String load, ArrivalRate arrivalRate, Duration duration, LatencyDistribution latency) {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .writableStackTraceEnabled(false)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        ExecutorService callers = Executors.newCachedThreadPool();
+        try {
+            LoadTarget target = LoadTarget.of(bulkheadRegistry.bulkhead("flightSearchService"), callers);
+            return LoadGenerator.custom(arrivalRate, duration).build()
+                    .run(load + " semaphore maxConcurrentCalls=" + maxConcurrentCalls + " maxWaitDuration=" + maxWaitDuration.toMillis() + "ms",
+                            target, flightSupplier(latency));
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    LoadResult threadPool(int threadPoolSize, int queueCapacity, String load, ArrivalRate arrivalRate, Duration duration, LatencyDistribution latency) {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(threadPoolSize)
+                .coreThreadPoolSize(threadPoolSize)
+                .queueCapacity(queueCapacity)
+                .writableStackTraceEnabled(false)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+        try {
+            return LoadGenerator.custom(arrivalRate, duration).build()
+                    .run(load + " threadPool threads=" + threadPoolSize + " queueCapacity=" + queueCapacity, LoadTarget.of(bulkhead), flightSupplier(latency));
+        } finally {
+            try {
+                bulkhead.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path reportDir = Paths.get(args.length > 0 ? args[0] : "build/reports/loadtest");
+        LoadTestSample loadTest = new LoadTestSample();
+
+        // 20ms median with a long tail, so 20 permits saturate at roughly 800 calls per second
+        LatencyDistribution latency = LatencyDistribution.logNormal(Duration.ofMillis(20), 0.5);
+        Duration duration = Duration.ofSeconds(5);
+        List<LoadResult> results = new ArrayList<>();
+        results.add(loadTest.semaphore(20, Duration.ZERO, "constant 500/s", ArrivalRate.constant(500), duration, latency));
+        results.add(loadTest.semaphore(20, Duration.ofMillis(50), "constant 500/s", ArrivalRate.constant(500), duration, latency));
+        results.add(loadTest.threadPool(20, 100, "constant 500/s", ArrivalRate.constant(500), duration, latency));
+        results.add(loadTest.semaphore(20, Duration.ofMillis(50), "ramp 100-2000/s", ArrivalRate.ramp(100, 2000, duration), duration, latency));
+        results.add(loadTest.threadPool(20, 100, "step 250/s +250/s every 1s", ArrivalRate.step(250, 250, Duration.ofSeconds(1)), duration, latency));
+        results.forEach(System.out::println);
+
+        LoadResult.writeCsv(reportDir.resolve("loadtest.csv"), results);
+        LoadResult.writeJson(reportDir.resolve("loadtest.json"), results);
+        System.out.println("Reports written to " + reportDir.toAbsolutePath());
+    }
+}
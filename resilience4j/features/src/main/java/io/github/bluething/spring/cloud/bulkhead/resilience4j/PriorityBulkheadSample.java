@@ -0,0 +1,76 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Priority;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.priority.PriorityBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class PriorityBulkheadSample {
+    void priorityLanes() {
+        PriorityBulkhead<Priority> priorityBulkhead = PriorityBulkhead.custom("flightSearchService", Priority.class)
+                .lane(Priority.HIGH, 2, 8)
+                .lane(Priority.NORMAL, 1, 2)
+                .lane(Priority.LOW, 1, 1)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .writableStackTraceEnabled(false)
+                .build();
+
+        for (Priority priority : Priority.values()) {
+            priorityBulkhead.lane(priority).getEventPublisher()
+                    .onCallRejected(event -> System.out.println(event.toString()));
+        }
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        List<SearchRequest> searchRequests = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            searchRequests.add(new SearchRequest("NYC", "LAX", "07/05/2021", Priority.LOW));
+        }
+        searchRequests.add(new SearchRequest("NYC", "SFO", "07/05/2021", Priority.HIGH));
+        searchRequests.add(new SearchRequest("NYC", "SEA", "07/05/2021", Priority.HIGH));
+
+        for (SearchRequest searchRequest : searchRequests) {
+            Bulkhead lane = priorityBulkhead.lane(searchRequest.getPriority());
+
+            Supplier<List<Flight>> flightSupplier = () -> {
+                List<Flight> flights = new ArrayList<>();
+                try {
+                    flights = flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                return flights;
+            };
+            Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(lane, flightSupplier);
+
+            CompletableFuture.supplyAsync(decoratedFlightSupplier)
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results for " + searchRequest);
+                        }
+                    });
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        PriorityBulkheadSample priorityBulkhead = new PriorityBulkheadSample();
+        priorityBulkhead.priorityLanes();
+        delay(6);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.BulkheadOperator;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.NonBlockingService;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.SingleSubscriber;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.core.NamingThreadFactory;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class ReactiveSample {
+    void reactiveWithBasicUsage() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(4)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        // a single timer thread serves every search
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("event-loop"));
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        NonBlockingService flightSearchService = new NonBlockingService(scheduler, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+        Flow.Publisher<List<Flight>> decoratedFlightPublisher = BulkheadOperator.decoratePublisher(bulkhead, flightSearchService.searchFlightsTakingOneSecond(searchRequest));
+
+        for (int i = 0; i < 6; i++) {
+            SingleSubscriber.toFuture(decoratedFlightPublisher)
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                        if (t != null) {
+                            System.out.println(t.getMessage());
+                        }
+                    });
+        }
+        System.out.println("Available concurrent calls " + bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+    void reactiveWithCancel() throws InterruptedException {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("event-loop"));
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        NonBlockingService flightSearchService = new NonBlockingService(scheduler, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Flow.Publisher<List<Flight>> decoratedFlightPublisher = BulkheadOperator.decoratePublisher(bulkhead, flightSearchService.searchFlightsTakingOneSecond(searchRequest));
+
+        SingleSubscriber.toFuture(decoratedFlightPublisher).cancel(true);
+        System.out.println("Available concurrent calls after cancel " + bulkhead.getMetrics().getAvailableConcurrentCalls());
+        SingleSubscriber.toFuture(decoratedFlightPublisher)
+                .thenAccept(flights -> System.out.println("Received results"));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ReactiveSample reactiveSample = new ReactiveSample();
+        reactiveSample.reactiveWithBasicUsage();
+        delay(2);
+        System.out.println(" ====== ");
+        reactiveSample.reactiveWithCancel();
+        delay(2);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.scatter.ScatterGatherResult;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.scatter.ScatterGatherSearch;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class ScatterGatherSample {
+    void scatterGather() throws Exception {
+        ThreadPoolBulkheadConfig config = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(2)
+                .coreThreadPoolSize(1)
+                .queueCapacity(1)
+                .build();
+        ThreadPoolBulkheadRegistry registry = ThreadPoolBulkheadRegistry.of(config);
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        // fills the pool and the queue of the last provider, so the search skips it
+        ThreadPoolBulkhead busyBulkhead = registry.bulkhead("airlineE");
+        for (int i = 0; i < 3; i++) {
+            busyBulkhead.submit(() -> {
+                try {
+                    delay(2);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+                return null;
+            });
+        }
+
+        ScatterGatherSearch scatterGatherSearch = ScatterGatherSearch.custom()
+                .provider(registry.bulkhead("airlineA"), searchRequest -> search(() -> flightSearchService.searchFlightsTakingOneSecond(searchRequest)))
+                .provider(registry.bulkhead("airlineB"), searchRequest -> search(() -> flightSearchService.searchFlights(searchRequest, Duration.ofMillis(200))))
+                .provider(registry.bulkhead("airlineC"), searchRequest -> flightSearchService.searchFlightsStreaming(searchRequest, 3, 100)
+                        .collect(Collectors.toList()))
+                .provider(registry.bulkhead("airlineD"), searchRequest -> search(() -> flightSearchService.searchFlights(searchRequest, Duration.ofSeconds(3))))
+                .provider(busyBulkhead, searchRequest -> search(() -> flightSearchService.searchFlightsTakingOneSecond(searchRequest)))
+                .timeout(Duration.ofMillis(1500))
+                .build();
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+        long start = System.nanoTime();
+        ScatterGatherResult result = scatterGatherSearch.search(searchRequest).join();
+        System.out.println("Gathered in " + (System.nanoTime() - start) / 1_000_000 + "ms: " + result);
+        // airlineA and airlineB return the same two flights, they are listed once
+        result.getFlights().forEach(System.out::println);
+        System.out.println("Partial " + result.isPartial());
+
+        for (ThreadPoolBulkhead bulkhead : registry.getAllBulkheads()) {
+            bulkhead.close();
+        }
+    }
+
+    private List<Flight> search(Search search) {
+        List<Flight> flights = new ArrayList<>();
+        try {
+            flights = search.call();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        return flights;
+    }
+
+    private interface Search {
+        List<Flight> call() throws InterruptedException;
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ScatterGatherSample scatterGatherSample = new ScatterGatherSample();
+        scatterGatherSample.scatterGather();
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.bluething.spring.cloud.bulkhead.resilience4j;
 
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.RingBufferEventSink;
 import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
 import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
 import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
@@ -17,6 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.StreamSupport;
@@ -232,6 +234,45 @@ public class SemaphoreBulkHead {
                     });
         }
     }
+    void semaphoreEventSink() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(8)
+                .maxWaitDuration(Duration.ofMillis(500))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        RingBufferEventSink eventSink = new RingBufferEventSink("flightSearchService", 1024, Duration.ofMillis(100), meterRegistry);
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights =  flightSearchService.searchFlightsTakingRandomTime(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = RingBufferEventSink.decorateSupplier(bulkhead, eventSink, flightSupplier);
+
+        List<CompletableFuture<List<Flight>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(CompletableFuture.supplyAsync(decoratedFlightSupplier));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        eventSink.close();
+        meterRegistry.get("resilience4j.bulkhead.events").counters()
+                .forEach(counter -> System.out.println("Events " + counter.getId().getTag("kind") + ": " + counter.count()));
+        System.out.println("Mean call duration " + meterRegistry.get("resilience4j.bulkhead.call.duration").timer().mean(TimeUnit.MILLISECONDS) + " ms");
+    }
     void printMetricDetails(MeterRegistry meterRegistry) {
         Consumer<Meter> meterConsumer = meter -> {
           String desc = meter.getId().getDescription();
@@ -263,6 +304,8 @@ public class SemaphoreBulkHead {
         System.out.println(" ====== ");
         semaphoreBulkHead.semaphoreMetrics();
         delay(15);
+        System.out.println(" ====== ");
+        semaphoreBulkHead.semaphoreEventSink();
     }
     static void delay(int second) throws InterruptedException {
         Thread.sleep(second * 1000);
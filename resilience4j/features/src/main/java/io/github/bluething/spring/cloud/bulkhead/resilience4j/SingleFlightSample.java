@@ -0,0 +1,58 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.coalescing.SingleFlight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+public class SingleFlightSample {
+    void singleFlightBasicUsage() {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(1)
+                .coreThreadPoolSize(1)
+                .queueCapacity(1)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flightSearchService");
+
+        bulkhead.getEventPublisher().onCallPermitted(event -> System.out.println(event.toString()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SingleFlight<SearchRequest, List<Flight>> singleFlight = new SingleFlight<>(searchRequest ->
+                bulkhead.executeCallable(() -> flightSearchService.searchFlightsTakingOneSecond(searchRequest)));
+
+        for (int i = 0; i < 10; i++) {
+            SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/06/2021");
+            singleFlight.execute(searchRequest)
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                        if (t != null) {
+                            t.printStackTrace();
+                        }
+                    });
+        }
+        System.out.println("Searches in flight " + singleFlight.getInFlightCount());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SingleFlightSample singleFlight = new SingleFlightSample();
+        singleFlight.singleFlightBasicUsage();
+        delay(3);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.BulkheadOperator;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive.NonBlockingService;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.streaming.BulkheadStreams;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.core.NamingThreadFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class StreamingSample {
+    void streamWithEarlyClose() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/03/2021");
+
+        Supplier<Stream<Flight>> decoratedFlightStream = BulkheadStreams.decorateStream(bulkhead, () -> flightSearchService.searchFlightsStreaming(searchRequest, 100, 100));
+
+        // only the first three of 100 flights are produced, closing the stream gives the permit back
+        try (Stream<Flight> flights = decoratedFlightStream.get()) {
+            flights.limit(3)
+                    .forEach(flight -> System.out.println("Received " + flight + " at " + LocalDateTime.now().format(dateTimeFormatter)));
+        }
+        System.out.println("Available concurrent calls after close " + bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+    void publisherWithBackpressure() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("event-loop"));
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        NonBlockingService flightSearchService = new NonBlockingService(scheduler, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        Flow.Publisher<Flight> decoratedFlightPublisher = BulkheadOperator.decoratePublisher(bulkhead,
+                flightSearchService.searchFlightsStreaming(searchRequest, 100, Duration.ofMillis(100)));
+
+        // requests two flights at a time and cancels after five
+        decoratedFlightPublisher.subscribe(new Flow.Subscriber<Flight>() {
+            private Flow.Subscription subscription;
+            private int received;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(2);
+            }
+
+            @Override
+            public void onNext(Flight flight) {
+                System.out.println("Received " + flight + " at " + LocalDateTime.now().format(dateTimeFormatter));
+                received++;
+                if (received == 5) {
+                    subscription.cancel();
+                    System.out.println("Available concurrent calls after cancel " + bulkhead.getMetrics().getAvailableConcurrentCalls());
+                } else if (received % 2 == 0) {
+                    subscription.request(2);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                System.out.println(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+                System.out.println("Received all flights");
+            }
+        });
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StreamingSample streamingSample = new StreamingSample();
+        streamingSample.streamWithEarlyClose();
+        System.out.println(" ====== ");
+        streamingSample.publisherWithBackpressure();
+        delay(2);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
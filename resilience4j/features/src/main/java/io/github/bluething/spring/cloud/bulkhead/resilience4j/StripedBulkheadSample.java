@@ -0,0 +1,71 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.striped.StripedSemaphoreBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class StripedBulkheadSample {
+    void stripedPeakConcurrency() throws InterruptedException {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(3)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        StripedSemaphoreBulkhead.register(bulkheadRegistry, "flightSearchService");
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+
+        bulkhead.getEventPublisher().onCallRejected(event -> System.out.println(event.toString()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/05/2021");
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Supplier<List<Flight>> flightSupplier = () -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            } finally {
+                running.decrementAndGet();
+            }
+            return flights;
+        };
+        Supplier<List<Flight>> decoratedFlightSupplier = Bulkhead.decorateSupplier(bulkhead, flightSupplier);
+
+        // 8 callers and 3 permits, the last callers wait about 2 seconds and some are rejected
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executorService.submit(decoratedFlightSupplier::get);
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.println("Peak concurrent calls " + peak.get() + " of " + bulkhead.getMetrics().getMaxAllowedConcurrentCalls()
+                + ", available " + bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StripedBulkheadSample stripedBulkheadSample = new StripedBulkheadSample();
+        stripedBulkheadSample.stripedPeakConcurrency();
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.tenant.TenantBulkheadRegistry;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TenantBulkheadSample {
+    void routeIsolation() throws InterruptedException {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        TenantBulkheadRegistry<SearchRequest> tenantRegistry = TenantBulkheadRegistry.<SearchRequest>custom("flightSearchService", bulkheadConfig)
+                .keyName(searchRequest -> searchRequest.getFrom() + "-" + searchRequest.getTo())
+                .maxTenants(3)
+                .maxTaggedTenants(2)
+                .idleTimeout(Duration.ofSeconds(1))
+                .build();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(tenantRegistry.getBulkheadRegistry()).bindTo(meterRegistry);
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        // NYC-LAX is the noisy route, it sends 6 searches at once and only gets 2 through. ORD-DEN finds
+        // no free slot and shares the overflow bulkhead
+        List<SearchRequest> searchRequests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            searchRequests.add(new SearchRequest("NYC", "LAX", "07/05/2021"));
+        }
+        searchRequests.add(new SearchRequest("SFO", "SEA", "07/05/2021"));
+        searchRequests.add(new SearchRequest("BOS", "MIA", "07/05/2021"));
+        searchRequests.add(new SearchRequest("ORD", "DEN", "07/05/2021"));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(searchRequests.size());
+        for (SearchRequest searchRequest : searchRequests) {
+            Bulkhead bulkhead = tenantRegistry.bulkhead(searchRequest);
+            executorService.submit(() -> {
+                try {
+                    List<Flight> flights = bulkhead.executeCallable(() -> flightSearchService.searchFlights(searchRequest, Duration.ofMillis(500)));
+                    System.out.println(bulkhead.getName() + " found " + flights.size() + " flights");
+                } catch (BulkheadFullException e) {
+                    System.out.println(e.getMessage());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+        printTenants(tenantRegistry, meterRegistry);
+        executorService.shutdown();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+
+        // every route is idle now, a new route evicts them all and takes a tagged slot again
+        Thread.sleep(1000);
+        tenantRegistry.bulkhead(new SearchRequest("LAX", "NYC", "07/06/2021"));
+        printTenants(tenantRegistry, meterRegistry);
+    }
+
+    void printTenants(TenantBulkheadRegistry<SearchRequest> tenantRegistry, MeterRegistry meterRegistry) {
+        Set<String> taggedNames = new TreeSet<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            taggedNames.add(meter.getId().getTag("name"));
+        }
+        System.out.println(tenantRegistry.size() + " tenant bulkheads, meters tagged with " + taggedNames);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        TenantBulkheadSample tenantBulkheadSample = new TenantBulkheadSample();
+        tenantBulkheadSample.routeIsolation();
+    }
+}
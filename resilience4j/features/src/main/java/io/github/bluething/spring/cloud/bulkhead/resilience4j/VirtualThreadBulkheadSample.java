@@ -0,0 +1,105 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.virtual.VirtualThreadBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class VirtualThreadBulkheadSample {
+    void virtualThreadBasicUsage() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(200)
+                .maxWaitDuration(Duration.ofSeconds(2))
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        VirtualThreadBulkhead bulkhead = VirtualThreadBulkhead.of(bulkheadRegistry.bulkhead("flightSearchService"));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/06/2021");
+
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = VirtualThreadBulkhead.decorateCallable(bulkhead,
+                () -> flightSearchService.searchFlightsTakingOneSecond(searchRequest));
+
+        AtomicInteger received = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            decoratedFlightSupplier
+                    .get()
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results " + received.incrementAndGet());
+                        }
+                        if (t != null) {
+                            t.printStackTrace();
+                        }
+                    });
+        }
+        bulkhead.close();
+    }
+    void virtualThreadEvent() {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofMillis(500))
+                .writableStackTraceEnabled(false)
+                .build();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(bulkheadConfig);
+        Bulkhead semaphoreBulkhead = bulkheadRegistry.bulkhead("flightSearchService");
+        VirtualThreadBulkhead bulkhead = VirtualThreadBulkhead.of(semaphoreBulkhead);
+
+        semaphoreBulkhead.getEventPublisher()
+                .onCallPermitted(event -> System.out.println(event.toString()));
+        semaphoreBulkhead.getEventPublisher()
+                .onCallRejected(event -> System.out.println(event.toString()));
+        semaphoreBulkhead.getEventPublisher()
+                .onCallFinished(event -> System.out.println(event.toString()));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/06/2021");
+
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = VirtualThreadBulkhead.decorateCallable(bulkhead,
+                () -> flightSearchService.searchFlightsTakingOneSecond(searchRequest));
+
+        for (int i = 0; i < 3; i++) {
+            decoratedFlightSupplier
+                    .get()
+                    .whenComplete((r, t) -> {
+                        if (r != null) {
+                            System.out.println("Received results");
+                        }
+                        if (t != null) {
+                            t.printStackTrace();
+                        }
+                    });
+        }
+        bulkhead.close();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        VirtualThreadBulkheadSample virtualThreadBulkhead = new VirtualThreadBulkheadSample();
+        virtualThreadBulkhead.virtualThreadBasicUsage();
+        delay(3);
+        System.out.println(" ====== ");
+        virtualThreadBulkhead.virtualThreadEvent();
+        delay(3);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.warmup.WarmStart;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+public class WarmStartSample {
+    private final Service flightSearchService = new Service(new Random(), DateTimeFormatter.ofPattern("HH:mm:ss SSS"));
+
+    Supplier<CompletionStage<List<Flight>>> decorate(ThreadPoolBulkhead bulkhead, SearchRequest searchRequest) {
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlights(searchRequest, Duration.ZERO);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        return ThreadPoolBulkhead.decorateSupplier(bulkhead, flightSupplier);
+    }
+
+    void firstCalls(String label, ThreadPoolBulkhead bulkhead) {
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = decorate(bulkhead, new SearchRequest("NYC", "LAX", "07/05/2021"));
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            decoratedFlightSupplier.get().toCompletableFuture().join();
+            latencies.add((System.nanoTime() - start) / 1_000);
+        }
+        System.out.println(label + " first calls (us): " + latencies);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ThreadPoolBulkheadConfig config = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(2)
+                .coreThreadPoolSize(1)
+                .queueCapacity(10)
+                .build();
+        ThreadPoolBulkheadRegistry registry = ThreadPoolBulkheadRegistry.of(config);
+        WarmStartSample warmStartSample = new WarmStartSample();
+
+        // runs first, so it pays for class loading and the JIT as well as thread creation
+        ThreadPoolBulkhead coldBulkhead = registry.bulkhead("coldFlightSearch");
+        warmStartSample.firstCalls("Cold", coldBulkhead);
+        coldBulkhead.close();
+
+        ThreadPoolBulkhead warmBulkhead = registry.bulkhead("warmFlightSearch");
+        WarmStart warmStart = WarmStart.custom(warmBulkhead)
+                .warmupCalls(5000)
+                .maxWarmupDuration(Duration.ofSeconds(10))
+                .build();
+        // a synthetic request that the provider answers without side effects
+        warmStart.start(warmStartSample.decorate(warmBulkhead, new SearchRequest("WRM", "UP", "01/01/2000")));
+        System.out.println("Ready right away " + warmStart.isReady());
+        warmStart.ready().join();
+        System.out.println("Ready after " + warmStart.getCompletedCalls() + " warm-up calls, " + warmStart.getFailedCalls() + " failed, "
+                + warmBulkhead.getMetrics().getThreadPoolSize() + " threads started");
+        warmStartSample.firstCalls("Warm", warmBulkhead);
+        warmBulkhead.close();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Service;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.workstealing.WorkStealingThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedThreadPoolBulkheadMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
+
+public class WorkStealingBulkheadSample {
+    void workStealingMetrics() {
+        ThreadPoolBulkheadConfig threadPoolBulkheadConfig = ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(3)
+                .coreThreadPoolSize(3)
+                .queueCapacity(2)
+                .writableStackTraceEnabled(false)
+                .build();
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(threadPoolBulkheadConfig);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedThreadPoolBulkheadMetrics.ofThreadPoolBulkheadRegistry(threadPoolBulkheadRegistry).bindTo(meterRegistry);
+
+        ThreadPoolBulkhead bulkhead = WorkStealingThreadPoolBulkhead.register(threadPoolBulkheadRegistry, "flightSearchService");
+
+        bulkhead.getEventPublisher().onCallRejected(event -> System.out.println(event.toString()));
+        bulkhead.getEventPublisher().onCallFinished(event -> printMetricDetails(meterRegistry));
+
+        Random random = new Random();
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss SSS");
+        Service flightSearchService = new Service(random, dateTimeFormatter);
+
+        SearchRequest searchRequest = new SearchRequest("NYC", "LAX", "07/06/2021");
+
+        Supplier<List<Flight>> flightSupplier = () -> {
+            List<Flight> flights = new ArrayList<>();
+            try {
+                flights = flightSearchService.searchFlightsTakingOneSecond(searchRequest);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return flights;
+        };
+        Supplier<CompletionStage<List<Flight>>> decoratedFlightSupplier = ThreadPoolBulkhead.decorateSupplier(threadPoolBulkheadRegistry.bulkhead("flightSearchService"), flightSupplier);
+
+        for (int i = 0; i < 6; i++) {
+            try {
+                decoratedFlightSupplier
+                        .get()
+                        .whenComplete((r, t) -> {
+                            if (r != null) {
+                                System.out.println("Received results");
+                            }
+                            if (t != null) {
+                                t.printStackTrace();
+                            }
+                        });
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+    void printMetricDetails(MeterRegistry meterRegistry) {
+        Consumer<Meter> meterConsumer = meter -> {
+            String desc = meter.getId().getDescription();
+            String metricName = meter.getId().getName();
+            Double metricValue = StreamSupport.stream(meter.measure().spliterator(), false)
+                    .filter(m -> m.getStatistic().name().equals("VALUE"))
+                    .findFirst()
+                    .map(m -> m.getValue())
+                    .orElse(0.0);
+            System.out.println(desc + " - " + metricName + ": " + metricValue);
+        };
+        meterRegistry.forEachMeter(meterConsumer);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        WorkStealingBulkheadSample workStealingBulkhead = new WorkStealingBulkheadSample();
+        workStealingBulkhead.workStealingMetrics();
+        delay(4);
+    }
+
+    static void delay(int second) throws InterruptedException {
+        Thread.sleep(1000 * second);
+    }
+}
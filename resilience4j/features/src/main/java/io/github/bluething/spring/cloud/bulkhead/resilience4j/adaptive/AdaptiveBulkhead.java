@@ -0,0 +1,269 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.BulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Bulkhead} whose concurrency limit is recomputed by a {@link LimitAlgorithm} after every call.
+ * {@code maxConcurrentCalls} of the config is only the initial limit, {@code maxWaitDuration} is honoured
+ * as usual.
+ * <p>
+ * {@link #decorateSupplier(AdaptiveBulkhead, Supplier)} and
+ * {@link #decorateCompletionStage(AdaptiveBulkhead, Supplier)} feed the limit algorithm the latency of every
+ * call on its own. A plain {@link #onComplete()} only measures a call that was acquired on the same thread, so
+ * a call completed on another thread, like one of {@code Bulkhead.decorateCompletionStage}, releases its permit
+ * without a sample.
+ */
+public class AdaptiveBulkhead implements Bulkhead {
+    private final String name;
+    private final LimitAlgorithm limitAlgorithm;
+    private final Map<String, String> tags;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    // start of the call acquired on this thread, 0 once it was taken
+    private final ThreadLocal<long[]> startTime = ThreadLocal.withInitial(() -> new long[1]);
+    // the limit algorithms keep state, every sample goes through them exactly once
+    private final Object limitLock = new Object();
+    private final AdaptiveBulkheadMetrics metrics = new AdaptiveBulkheadMetrics();
+    private final BulkheadEventProcessor eventProcessor = new BulkheadEventProcessor();
+    private volatile BulkheadConfig config;
+
+    public AdaptiveBulkhead(String name, BulkheadConfig config, LimitAlgorithm limitAlgorithm) {
+        this(name, config, limitAlgorithm, HashMap.empty());
+    }
+
+    public AdaptiveBulkhead(String name, BulkheadConfig config, LimitAlgorithm limitAlgorithm, Map<String, String> tags) {
+        this.name = name;
+        this.config = config;
+        this.limitAlgorithm = limitAlgorithm;
+        this.tags = tags;
+        this.limit = new AtomicInteger(config.getMaxConcurrentCalls());
+    }
+
+    /**
+     * Replaces the entry {@code name} of the registry with an adaptive bulkhead built from the entry's
+     * config and tags, so registry lookups and {@code TaggedBulkheadMetrics} see the adaptive one.
+     */
+    public static AdaptiveBulkhead register(BulkheadRegistry bulkheadRegistry, String name, LimitAlgorithm limitAlgorithm) {
+        Bulkhead template = bulkheadRegistry.bulkhead(name);
+        if (template instanceof AdaptiveBulkhead) {
+            return (AdaptiveBulkhead) template;
+        }
+        AdaptiveBulkhead adaptiveBulkhead = new AdaptiveBulkhead(name, template.getBulkheadConfig(), limitAlgorithm, template.getTags());
+        bulkheadRegistry.replace(name, adaptiveBulkhead);
+        return adaptiveBulkhead;
+    }
+
+    public static <T> Supplier<T> decorateSupplier(AdaptiveBulkhead bulkhead, Supplier<T> supplier) {
+        return () -> {
+            bulkhead.acquirePermission();
+            long startNanos = bulkhead.takeStartTime();
+            try {
+                return supplier.get();
+            } finally {
+                bulkhead.complete(startNanos);
+            }
+        };
+    }
+
+    public static <T> Supplier<CompletionStage<T>> decorateCompletionStage(AdaptiveBulkhead bulkhead, Supplier<CompletionStage<T>> supplier) {
+        return () -> {
+            CompletableFuture<T> promise = new CompletableFuture<>();
+            try {
+                bulkhead.acquirePermission();
+            } catch (RuntimeException e) {
+                promise.completeExceptionally(e);
+                return promise;
+            }
+            long startNanos = bulkhead.takeStartTime();
+            try {
+                supplier.get().whenComplete((result, throwable) -> {
+                    bulkhead.complete(startNanos);
+                    if (throwable != null) {
+                        promise.completeExceptionally(throwable);
+                    } else {
+                        promise.complete(result);
+                    }
+                });
+            } catch (Throwable t) {
+                bulkhead.complete(startNanos);
+                promise.completeExceptionally(t);
+            }
+            return promise;
+        };
+    }
+
+    @Override
+    public void changeConfig(BulkheadConfig newConfig) {
+        config = newConfig;
+        synchronized (limitLock) {
+            limit.set(newConfig.getMaxConcurrentCalls());
+        }
+        signalWaiters(true);
+    }
+
+    @Override
+    public boolean tryAcquirePermission() {
+        boolean permitted = tryEnter();
+        eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(name) : new BulkheadOnCallRejectedEvent(name));
+        return permitted;
+    }
+
+    @Override
+    public void acquirePermission() {
+        boolean permitted = tryEnter() || waitForPermit(config.getMaxWaitDuration().toNanos());
+        eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(name) : new BulkheadOnCallRejectedEvent(name));
+        if (!permitted) {
+            throw BulkheadFullException.createBulkheadFullException(this);
+        }
+    }
+
+    private long takeStartTime() {
+        long[] slot = startTime.get();
+        long startNanos = slot[0];
+        slot[0] = 0;
+        return startNanos;
+    }
+
+    @Override
+    public void releasePermission() {
+        takeStartTime();
+        inFlight.decrementAndGet();
+        signalWaiters(false);
+    }
+
+    @Override
+    public void onComplete() {
+        complete(takeStartTime());
+    }
+
+    private void complete(long startNanos) {
+        int current;
+        int updated;
+        synchronized (limitLock) {
+            current = limit.get();
+            updated = startNanos == 0 ? current : limitAlgorithm.update(current, System.nanoTime() - startNanos, inFlight.get());
+            limit.set(updated);
+        }
+        inFlight.decrementAndGet();
+        signalWaiters(updated > current);
+        eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(name));
+    }
+
+    boolean tryEnter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                startTime.get()[0] = System.nanoTime();
+                return true;
+            }
+        }
+    }
+
+    private boolean waitForPermit(long timeoutNanos) {
+        if (timeoutNanos <= 0) {
+            return false;
+        }
+        lock.lock();
+        waiters.incrementAndGet();
+        try {
+            long remainingNanos = timeoutNanos;
+            while (!tryEnter()) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    private void signalWaiters(boolean all) {
+        if (waiters.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (all) {
+                permitReleased.signalAll();
+            } else {
+                permitReleased.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptiveBulkhead '%s'", name);
+    }
+
+    private class AdaptiveBulkheadMetrics implements Metrics {
+        @Override
+        public int getAvailableConcurrentCalls() {
+            return Math.max(0, limit.get() - inFlight.get());
+        }
+
+        @Override
+        public int getMaxAllowedConcurrentCalls() {
+            return limit.get();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive;
+
+import java.time.Duration;
+
+/**
+ * Additive increase, multiplicative decrease. The limit grows by one while calls finish under the
+ * latency threshold and the bulkhead is at least half used, and is cut by the backoff ratio as soon
+ * as a call is slower than the threshold.
+ */
+public class AimdLimit implements LimitAlgorithm {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private AimdLimit(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.latencyThresholdNanos = builder.latencyThreshold.toNanos();
+        this.backoffRatio = builder.backoffRatio;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    public static AimdLimit ofDefaults() {
+        return custom().build();
+    }
+
+    @Override
+    public int update(int currentLimit, long rttNanos, int inFlight) {
+        if (rttNanos > latencyThresholdNanos) {
+            return Math.max(minLimit, (int) (currentLimit * backoffRatio));
+        }
+        if (inFlight * 2 >= currentLimit) {
+            return Math.min(maxLimit, currentLimit + 1);
+        }
+        return currentLimit;
+    }
+
+    public static class Builder {
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        private double backoffRatio = 0.9;
+
+        public Builder minLimit(int minLimit) {
+            if (minLimit < 1) {
+                throw new IllegalArgumentException("minLimit must be at least 1");
+            }
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public Builder latencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+            return this;
+        }
+
+        public Builder backoffRatio(double backoffRatio) {
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        public AimdLimit build() {
+            if (maxLimit < minLimit) {
+                throw new IllegalArgumentException("maxLimit must not be lower than minLimit");
+            }
+            return new AimdLimit(this);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive;
+
+/**
+ * Gradient based limit. The ratio between the long term average latency and the latest sample
+ * shrinks the limit when latency rises, a queue allowance of sqrt(limit) lets it probe upwards
+ * while latency is stable.
+ */
+public class GradientLimit implements LimitAlgorithm {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longRttWeight;
+
+    private double estimatedLimit = -1;
+    private double longRttNanos = -1;
+
+    private GradientLimit(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.smoothing = builder.smoothing;
+        this.tolerance = builder.tolerance;
+        this.longRttWeight = 2.0 / (builder.longWindow + 1);
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    public static GradientLimit ofDefaults() {
+        return custom().build();
+    }
+
+    @Override
+    public synchronized int update(int currentLimit, long rttNanos, int inFlight) {
+        if (estimatedLimit < 0) {
+            estimatedLimit = currentLimit;
+        }
+        if (longRttNanos < 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos = longRttNanos * (1 - longRttWeight) + rttNanos * longRttWeight;
+        }
+
+        // An application that doesn't use half its limit says nothing about the downstream capacity.
+        if (inFlight * 2 < estimatedLimit) {
+            return currentLimit;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        return (int) estimatedLimit;
+    }
+
+    public static class Builder {
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private double tolerance = 1.5;
+        private int longWindow = 600;
+
+        public Builder minLimit(int minLimit) {
+            if (minLimit < 1) {
+                throw new IllegalArgumentException("minLimit must be at least 1");
+            }
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public Builder smoothing(double smoothing) {
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("smoothing must be in (0, 1]");
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        public Builder tolerance(double tolerance) {
+            if (tolerance < 1) {
+                throw new IllegalArgumentException("tolerance must be at least 1");
+            }
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        public Builder longWindow(int longWindow) {
+            if (longWindow < 1) {
+                throw new IllegalArgumentException("longWindow must be at least 1");
+            }
+            this.longWindow = longWindow;
+            return this;
+        }
+
+        public GradientLimit build() {
+            if (maxLimit < minLimit) {
+                throw new IllegalArgumentException("maxLimit must not be lower than minLimit");
+            }
+            return new GradientLimit(this);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive;
+
+/**
+ * Computes the next concurrency limit of an {@link AdaptiveBulkhead} from the latency of a finished call.
+ */
+public interface LimitAlgorithm {
+    int update(int currentLimit, long rttNanos, int inFlight);
+}
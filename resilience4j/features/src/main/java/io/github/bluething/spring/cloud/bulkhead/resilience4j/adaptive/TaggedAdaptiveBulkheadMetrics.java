@@ -0,0 +1,71 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Publishes the current limit of every {@link AdaptiveBulkhead} in a {@link BulkheadRegistry}, next to the
+ * gauges of {@code TaggedBulkheadMetrics}.
+ */
+public class TaggedAdaptiveBulkheadMetrics implements MeterBinder {
+    public static final String DEFAULT_ADAPTIVE_LIMIT_METRIC_NAME = "resilience4j.bulkhead.adaptive.limit";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ConcurrentMap<String, Meter.Id> meterIdMap = new ConcurrentHashMap<>();
+
+    private TaggedAdaptiveBulkheadMetrics(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    public static TaggedAdaptiveBulkheadMetrics ofBulkheadRegistry(BulkheadRegistry bulkheadRegistry) {
+        return new TaggedAdaptiveBulkheadMetrics(bulkheadRegistry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (Bulkhead bulkhead : bulkheadRegistry.getAllBulkheads()) {
+            addMetrics(meterRegistry, bulkhead);
+        }
+        bulkheadRegistry.getEventPublisher()
+                .onEntryAdded(event -> addMetrics(meterRegistry, event.getAddedEntry()));
+        bulkheadRegistry.getEventPublisher()
+                .onEntryRemoved(event -> removeMetrics(meterRegistry, event.getRemovedEntry().getName()));
+        bulkheadRegistry.getEventPublisher().onEntryReplaced(event -> {
+            removeMetrics(meterRegistry, event.getOldEntry().getName());
+            addMetrics(meterRegistry, event.getNewEntry());
+        });
+    }
+
+    private void addMetrics(MeterRegistry meterRegistry, Bulkhead bulkhead) {
+        if (!(bulkhead instanceof AdaptiveBulkhead)) {
+            return;
+        }
+        AdaptiveBulkhead adaptiveBulkhead = (AdaptiveBulkhead) bulkhead;
+        List<Tag> tags = new ArrayList<>();
+        tags.add(Tag.of("name", adaptiveBulkhead.getName()));
+        adaptiveBulkhead.getTags().forEach((key, value) -> tags.add(Tag.of(key, value)));
+
+        Gauge gauge = Gauge.builder(DEFAULT_ADAPTIVE_LIMIT_METRIC_NAME, adaptiveBulkhead, AdaptiveBulkhead::getLimit)
+                .description("The current concurrency limit computed by the adaptive bulkhead")
+                .tags(tags)
+                .register(meterRegistry);
+        meterIdMap.put(adaptiveBulkhead.getName(), gauge.getId());
+    }
+
+    private void removeMetrics(MeterRegistry meterRegistry, String name) {
+        Meter.Id id = meterIdMap.remove(name);
+        if (id != null) {
+            meterRegistry.remove(id);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.batch;
+
+import io.github.resilience4j.core.NamingThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single requests into batches and sends every batch as one call, so a batch only needs one
+ * bulkhead permit. A batch is sent when it reaches {@code maxBatchSize} or when its first request has
+ * waited {@code maxLinger}, whichever comes first. Equal requests in one batch share the result.
+ * {@link #close()} sends the pending batch, requests submitted after it fail with a
+ * {@link RejectedExecutionException}.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+    private final Function<List<K>, CompletionStage<Map<K, V>>> batchCall;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final ScheduledExecutorService scheduler;
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    public MicroBatcher(String name, int maxBatchSize, Duration maxLinger, Function<List<K>, CompletionStage<Map<K, V>>> batchCall) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.batchCall = batchCall;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory(name + "-batcher"));
+    }
+
+    public CompletableFuture<V> submit(K request) {
+        CompletableFuture<V> result;
+        Map<K, CompletableFuture<V>> full = null;
+        synchronized (this) {
+            if (closed) {
+                CompletableFuture<V> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new RejectedExecutionException("MicroBatcher is closed"));
+                return rejected;
+            }
+            result = pending.get(request);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                pending.put(request, result);
+                if (pending.size() == 1 && maxBatchSize > 1) {
+                    Map<K, CompletableFuture<V>> batch = pending;
+                    scheduler.schedule(() -> flush(batch), maxLingerNanos, TimeUnit.NANOSECONDS);
+                }
+                if (pending.size() >= maxBatchSize) {
+                    full = pending;
+                    pending = new LinkedHashMap<>();
+                }
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return result.copy();
+    }
+
+    private void flush(Map<K, CompletableFuture<V>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = new LinkedHashMap<>();
+        }
+        send(batch);
+    }
+
+    private void send(Map<K, CompletableFuture<V>> batch) {
+        try {
+            batchCall.apply(new ArrayList<>(batch.keySet())).whenComplete((results, throwable) ->
+                    batch.forEach((request, future) -> {
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else if (results.containsKey(request)) {
+                            future.complete(results.get(request));
+                        } else {
+                            future.completeExceptionally(new IllegalStateException("Batch returned no result for " + request));
+                        }
+                    }));
+        } catch (Throwable t) {
+            batch.values().forEach(future -> future.completeExceptionally(t));
+        }
+    }
+
+    @Override
+    public void close() {
+        Map<K, CompletableFuture<V>> remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = pending;
+            pending = new LinkedHashMap<>();
+        }
+        if (!remaining.isEmpty()) {
+            send(remaining);
+        }
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.cache;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.coalescing.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache in front of an asynchronous loader, usually a bulkhead decorated search.
+ * Hits are answered from memory without touching the loader. Entries older than {@code refreshAfter}
+ * are still served but reloaded in the background, entries older than {@code timeToLive} are dropped.
+ * Concurrent misses and refreshes of the same key share one load.
+ */
+public class StaleWhileRevalidateCache<K, V> {
+    private final SingleFlight<K, V> loader;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final long refreshAfterNanos;
+    private final Map<K, Entry<V>> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    private StaleWhileRevalidateCache(Builder<K, V> builder) {
+        this.loader = new SingleFlight<>(builder.loader);
+        this.maximumSize = builder.maximumSize;
+        this.timeToLiveNanos = builder.timeToLive.toNanos();
+        this.refreshAfterNanos = builder.refreshAfter.toNanos();
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > maximumSize;
+                if (evict) {
+                    evictionCounter.increment();
+                }
+                return evict;
+            }
+        };
+
+        MeterRegistry meterRegistry = builder.meterRegistry;
+        this.hitCounter = Counter.builder("cache.gets")
+                .description("The number of searches answered from the cache (hit) or loaded through the bulkhead (miss)")
+                .tags("name", builder.name, "result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+                .description("The number of searches answered from the cache (hit) or loaded through the bulkhead (miss)")
+                .tags("name", builder.name, "result", "miss")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("cache.evictions")
+                .description("The number of entries evicted because of size or age")
+                .tags("name", builder.name)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, StaleWhileRevalidateCache::size)
+                .description("The number of entries in the cache")
+                .tags("name", builder.name)
+                .register(meterRegistry);
+    }
+
+    public static <K, V> Builder<K, V> custom(String name, Function<K, CompletionStage<V>> loader, MeterRegistry meterRegistry) {
+        return new Builder<>(name, loader, meterRegistry);
+    }
+
+    public CompletionStage<V> get(K key) {
+        long now = System.nanoTime();
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt >= timeToLiveNanos) {
+                entries.remove(key);
+                evictionCounter.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCounter.increment();
+            return load(key);
+        }
+        hitCounter.increment();
+        if (now - entry.loadedAt >= refreshAfterNanos && entry.startRefresh()) {
+            Entry<V> stale = entry;
+            load(key).whenComplete((r, t) -> {
+                if (t != null) {
+                    stale.refreshFailed();
+                }
+            });
+        }
+        return CompletableFuture.completedFuture(entry.value);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private CompletableFuture<V> load(K key) {
+        return loader.execute(key).whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                synchronized (entries) {
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                }
+            }
+        });
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+        private boolean refreshing;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized boolean startRefresh() {
+            if (refreshing) {
+                return false;
+            }
+            refreshing = true;
+            return true;
+        }
+
+        synchronized void refreshFailed() {
+            refreshing = false;
+        }
+    }
+
+    public static class Builder<K, V> {
+        private final String name;
+        private final Function<K, CompletionStage<V>> loader;
+        private final MeterRegistry meterRegistry;
+        private int maximumSize = 1000;
+        private Duration timeToLive = Duration.ofMinutes(5);
+        private Duration refreshAfter = Duration.ofMinutes(1);
+
+        private Builder(String name, Function<K, CompletionStage<V>> loader, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.loader = loader;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public Builder<K, V> maximumSize(int maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("maximumSize must be at least 1");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> timeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        public Builder<K, V> refreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+            return this;
+        }
+
+        public StaleWhileRevalidateCache<K, V> build() {
+            if (refreshAfter.compareTo(timeToLive) > 0) {
+                throw new IllegalArgumentException("refreshAfter must not be longer than timeToLive");
+            }
+            return new StaleWhileRevalidateCache<>(this);
+        }
+    }
+}
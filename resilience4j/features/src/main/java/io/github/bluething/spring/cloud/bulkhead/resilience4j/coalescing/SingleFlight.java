@@ -0,0 +1,47 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.coalescing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent calls with an equal key into one. The first caller for a key starts the call,
+ * callers arriving while it is in flight get a copy of the same future. The key is forgotten as soon
+ * as the call completes, so later callers start a fresh call.
+ */
+public class SingleFlight<K, V> {
+    private final Function<K, CompletionStage<V>> call;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(Function<K, CompletionStage<V>> call) {
+        this.call = call;
+    }
+
+    public CompletableFuture<V> execute(K key) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing.copy();
+        }
+        try {
+            call.apply(key).whenComplete((result, throwable) -> {
+                inFlight.remove(key, promise);
+                if (throwable != null) {
+                    promise.completeExceptionally(throwable);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (Throwable t) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(t);
+        }
+        return promise.copy();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
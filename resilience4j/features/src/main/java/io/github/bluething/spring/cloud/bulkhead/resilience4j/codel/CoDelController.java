@@ -0,0 +1,98 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.codel;
+
+import java.time.Duration;
+
+/**
+ * The CoDel (controlled delay) drop decision of RFC 8289, fed with the time a task sat in the queue. The
+ * queue counts as overloaded once every task taken during a whole {@code interval} waited longer than
+ * {@code target}, that is once the minimum sojourn time stays above target. From then on a task is dropped,
+ * and the next drops come closer together ({@code interval / sqrt(drops)}) until a task waited less than
+ * target again.
+ */
+public class CoDelController {
+    private final long targetNanos;
+    private final long intervalNanos;
+    private long firstAboveTime;
+    private long dropNext;
+    private int count;
+    private int lastCount;
+    private volatile boolean dropping;
+    private volatile long droppedCount;
+
+    public CoDelController(Duration target, Duration interval) {
+        if (target.isNegative() || target.isZero()) {
+            throw new IllegalArgumentException("target must be positive");
+        }
+        if (interval.compareTo(target) < 0) {
+            throw new IllegalArgumentException("interval must not be shorter than target");
+        }
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Called for every task taken from the queue. {@code queueEmpty} tells whether it was the last one, a
+     * single task is never a standing queue.
+     */
+    public synchronized boolean shouldDrop(long sojournNanos, long now, boolean queueEmpty) {
+        boolean okToDrop = false;
+        if (sojournNanos < targetNanos || queueEmpty) {
+            firstAboveTime = 0;
+        } else if (firstAboveTime == 0) {
+            firstAboveTime = now + intervalNanos;
+        } else if (now - firstAboveTime >= 0) {
+            okToDrop = true;
+        }
+
+        if (dropping) {
+            if (!okToDrop) {
+                dropping = false;
+                return false;
+            }
+            if (now - dropNext >= 0) {
+                count++;
+                dropNext = controlLaw(dropNext);
+                return dropped();
+            }
+            return false;
+        }
+        if (okToDrop) {
+            dropping = true;
+            // start near the last drop rate when we were dropping a short while ago
+            int delta = count - lastCount;
+            count = delta > 1 && now - dropNext < 16 * intervalNanos ? delta : 1;
+            lastCount = count;
+            dropNext = controlLaw(now);
+            return dropped();
+        }
+        return false;
+    }
+
+    private long controlLaw(long time) {
+        return time + (long) (intervalNanos / Math.sqrt(count));
+    }
+
+    private boolean dropped() {
+        droppedCount++;
+        return true;
+    }
+
+    /**
+     * Returns true while the queue is overloaded.
+     */
+    public boolean isDropping() {
+        return dropping;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public Duration getTarget() {
+        return Duration.ofNanos(targetNanos);
+    }
+
+    public Duration getInterval() {
+        return Duration.ofNanos(intervalNanos);
+    }
+}
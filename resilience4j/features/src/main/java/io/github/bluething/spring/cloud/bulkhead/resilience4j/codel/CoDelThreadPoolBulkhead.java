@@ -0,0 +1,266 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.codel;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.ThreadPoolBulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.github.resilience4j.core.ContextPropagator;
+import io.github.resilience4j.core.NamingThreadFactory;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ThreadPoolBulkhead} that sheds load on queue delay instead of queue length. Every task carries the
+ * time it was queued, and a {@link CoDelController} looks at it when a worker takes the task. Once the
+ * controller finds a standing queue, queued tasks are dropped at its pace and new submissions are rejected,
+ * both with {@link BulkheadFullException}. With {@code lifoUnderOverload} the workers serve the newest task
+ * while the queue is overloaded, because its caller is the most likely to still be waiting.
+ * <p>
+ * {@code queueCapacity} is still the hard limit, so a big queue can absorb a short burst.
+ */
+public class CoDelThreadPoolBulkhead implements ThreadPoolBulkhead {
+    private final String name;
+    private final ThreadPoolBulkheadConfig config;
+    private final Map<String, String> tags;
+    private final CoDelController controller;
+    private final CoDelQueue queue;
+    private final ThreadPoolExecutor executorService;
+    private final CoDelBulkheadMetrics metrics = new CoDelBulkheadMetrics();
+    private final ThreadPoolBulkheadEventProcessor eventProcessor = new ThreadPoolBulkheadEventProcessor();
+
+    public CoDelThreadPoolBulkhead(String name, ThreadPoolBulkheadConfig config, CoDelController controller, boolean lifoUnderOverload) {
+        this(name, config, controller, lifoUnderOverload, HashMap.empty());
+    }
+
+    public CoDelThreadPoolBulkhead(String name, ThreadPoolBulkheadConfig config, CoDelController controller, boolean lifoUnderOverload,
+                                   Map<String, String> tags) {
+        this.name = name;
+        this.config = config;
+        this.tags = tags;
+        this.controller = controller;
+        this.queue = new CoDelQueue(config.getQueueCapacity(), lifoUnderOverload);
+        this.executorService = new ThreadPoolExecutor(config.getCoreThreadPoolSize(), config.getMaxThreadPoolSize(),
+                config.getKeepAliveDuration().toMillis(), TimeUnit.MILLISECONDS, queue, new NamingThreadFactory("bulkhead-" + name));
+    }
+
+    /**
+     * Replaces the entry {@code name} of the registry with a CoDel bulkhead built from the entry's config and
+     * tags. The replaced bulkhead is closed.
+     */
+    public static CoDelThreadPoolBulkhead register(ThreadPoolBulkheadRegistry bulkheadRegistry, String name, Duration target,
+                                                   Duration interval, boolean lifoUnderOverload) {
+        ThreadPoolBulkhead template = bulkheadRegistry.bulkhead(name);
+        if (template instanceof CoDelThreadPoolBulkhead) {
+            return (CoDelThreadPoolBulkhead) template;
+        }
+        CoDelThreadPoolBulkhead bulkhead = new CoDelThreadPoolBulkhead(name, template.getBulkheadConfig(),
+                new CoDelController(target, interval), lifoUnderOverload, template.getTags());
+        bulkheadRegistry.replace(name, bulkhead);
+        try {
+            template.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not close replaced bulkhead " + name, e);
+        }
+        return bulkhead;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Callable<T> callable) {
+        if (controller.isDropping() && !queue.isEmpty()) {
+            rejected();
+        }
+        QueuedTask<T> task = new QueuedTask<>(callable);
+        try {
+            executorService.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected();
+        }
+        eventProcessor.publish(() -> new BulkheadOnCallPermittedEvent(name));
+        return task.promise;
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(Runnable runnable) {
+        return submit(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private void rejected() {
+        eventProcessor.publish(() -> new BulkheadOnCallRejectedEvent(name));
+        throw BulkheadFullException.createBulkheadFullException(this);
+    }
+
+    public boolean isOverloaded() {
+        return controller.isDropping();
+    }
+
+    /**
+     * Returns the number of queued tasks dropped by the controller, rejected submissions not included.
+     */
+    public long getDroppedCount() {
+        return controller.getDroppedCount();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public ThreadPoolBulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public ThreadPoolBulkheadEventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CoDelThreadPoolBulkhead '%s'", name);
+    }
+
+    private class QueuedTask<T> implements Runnable {
+        private final Callable<T> callable;
+        private final CompletableFuture<T> promise = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        QueuedTask(Callable<T> callable) {
+            this.callable = ContextPropagator.decorateCallable(config.getContextPropagator(), callable);
+        }
+
+        @Override
+        public void run() {
+            try {
+                promise.complete(callable.call());
+            } catch (Throwable t) {
+                promise.completeExceptionally(t);
+            } finally {
+                eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(name));
+            }
+        }
+
+        void drop() {
+            eventProcessor.publish(() -> new BulkheadOnCallRejectedEvent(name));
+            promise.completeExceptionally(BulkheadFullException.createBulkheadFullException(CoDelThreadPoolBulkhead.this));
+        }
+    }
+
+    // the executor's workers only call take and poll(timeout), they run the CoDel decision on the oldest task
+    private class CoDelQueue extends LinkedBlockingDeque<Runnable> {
+        private final boolean lifoUnderOverload;
+
+        CoDelQueue(int capacity, boolean lifoUnderOverload) {
+            super(capacity);
+            this.lifoUnderOverload = lifoUnderOverload;
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            while (true) {
+                Runnable next = next(takeFirst());
+                if (next != null) {
+                    return next;
+                }
+            }
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (true) {
+                Runnable oldest = pollFirst(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (oldest == null) {
+                    return null;
+                }
+                Runnable next = next(oldest);
+                if (next != null) {
+                    return next;
+                }
+            }
+        }
+
+        // returns null when the oldest task was dropped
+        private Runnable next(Runnable oldest) {
+            QueuedTask<?> task = (QueuedTask<?>) oldest;
+            long now = System.nanoTime();
+            if (controller.shouldDrop(now - task.enqueuedAt, now, isEmpty())) {
+                task.drop();
+                return null;
+            }
+            if (lifoUnderOverload && controller.isDropping()) {
+                Runnable newest = pollLast();
+                if (newest != null) {
+                    // the oldest goes back to the head and is the next one the controller looks at
+                    if (!offerFirst(oldest)) {
+                        task.drop();
+                    }
+                    return newest;
+                }
+            }
+            return oldest;
+        }
+    }
+
+    private class CoDelBulkheadMetrics implements Metrics {
+        @Override
+        public int getCoreThreadPoolSize() {
+            return executorService.getCorePoolSize();
+        }
+
+        @Override
+        public int getThreadPoolSize() {
+            return executorService.getPoolSize();
+        }
+
+        @Override
+        public int getMaximumThreadPoolSize() {
+            return executorService.getMaximumPoolSize();
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return queue.size();
+        }
+
+        @Override
+        public int getRemainingQueueCapacity() {
+            return queue.remainingCapacity();
+        }
+
+        @Override
+        public int getQueueCapacity() {
+            return config.getQueueCapacity();
+        }
+    }
+}
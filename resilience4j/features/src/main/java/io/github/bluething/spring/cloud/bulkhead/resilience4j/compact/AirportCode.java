@@ -0,0 +1,44 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.compact;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Packs a three letter IATA airport code into the low 15 bits of an int, five bits per letter. Unpacked codes
+ * are cached, so every airport has exactly one {@code String}.
+ */
+public final class AirportCode {
+    private static final AtomicReferenceArray<String> CODES = new AtomicReferenceArray<>(1 << 15);
+
+    private AirportCode() {
+    }
+
+    public static int pack(String code) {
+        if (code == null || code.length() != 3) {
+            throw new IllegalArgumentException("Airport code must have three letters: " + code);
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            char letter = code.charAt(i);
+            if (letter < 'A' || letter > 'Z') {
+                throw new IllegalArgumentException("Airport code must have upper case letters only: " + code);
+            }
+            packed = packed << 5 | (letter - 'A');
+        }
+        return packed;
+    }
+
+    public static String unpack(int packed) {
+        if (packed < 0 || packed >= 1 << 15 || (packed >> 10 & 31) > 25 || (packed >> 5 & 31) > 25 || (packed & 31) > 25) {
+            throw new IllegalArgumentException("Not a packed airport code: " + packed);
+        }
+        String code = CODES.get(packed);
+        if (code == null) {
+            code = new String(new char[]{(char) ('A' + (packed >> 10 & 31)), (char) ('A' + (packed >> 5 & 31)), (char) ('A' + (packed & 31))});
+            // the first thread to publish wins, so concurrent callers still share one String
+            if (!CODES.compareAndSet(packed, null, code)) {
+                code = CODES.get(packed);
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.compact;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Priority;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+
+/**
+ * A {@link SearchRequest} with packed airport codes and the flight date as an epoch day.
+ */
+public final class CompactSearchRequest {
+    private final int from;
+    private final int to;
+    private final int flightDay;
+    private final Priority priority;
+
+    public CompactSearchRequest(int from, int to, int flightDay, Priority priority) {
+        this.from = from;
+        this.to = to;
+        this.flightDay = flightDay;
+        this.priority = priority;
+    }
+
+    public static CompactSearchRequest of(SearchRequest searchRequest) {
+        return new CompactSearchRequest(AirportCode.pack(searchRequest.getFrom()), AirportCode.pack(searchRequest.getTo()),
+                FlightDate.pack(searchRequest.getFlightDate()), searchRequest.getPriority());
+    }
+
+    public SearchRequest toSearchRequest() {
+        return new SearchRequest(AirportCode.unpack(from), AirportCode.unpack(to), FlightDate.unpack(flightDay), priority);
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public int getFlightDay() {
+        return flightDay;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    // like SearchRequest, priority is left out of equals/hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactSearchRequest that = (CompactSearchRequest) o;
+        return from == that.from && to == that.to && flightDay == that.flightDay;
+    }
+
+    @Override
+    public int hashCode() {
+        return (from * 31 + to) * 31 + flightDay;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactSearchRequest{" +
+                "from='" + AirportCode.unpack(from) + '\'' +
+                ", to='" + AirportCode.unpack(to) + '\'' +
+                ", flightDate='" + FlightDate.unpack(flightDay) + '\'' +
+                ", priority=" + priority +
+                '}';
+    }
+}
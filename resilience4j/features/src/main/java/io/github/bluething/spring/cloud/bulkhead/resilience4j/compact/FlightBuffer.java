@@ -0,0 +1,120 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.compact;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable container of flights kept as four parallel int arrays, so adding a flight allocates nothing once
+ * the arrays are large enough. {@link #cursor()} reads the flights through one reused flyweight, and
+ * {@link #toFlights()} converts them for code that needs {@link Flight} objects.
+ */
+public class FlightBuffer {
+    private int[] flightNumbers;
+    private int[] flightDays;
+    private int[] froms;
+    private int[] tos;
+    private int size;
+    private final Cursor cursor = new Cursor();
+
+    public FlightBuffer(int initialCapacity) {
+        flightNumbers = new int[initialCapacity];
+        flightDays = new int[initialCapacity];
+        froms = new int[initialCapacity];
+        tos = new int[initialCapacity];
+    }
+
+    public void add(int flightNumber, int flightDay, int from, int to) {
+        if (size == flightNumbers.length) {
+            int capacity = Math.max(8, size * 2);
+            flightNumbers = Arrays.copyOf(flightNumbers, capacity);
+            flightDays = Arrays.copyOf(flightDays, capacity);
+            froms = Arrays.copyOf(froms, capacity);
+            tos = Arrays.copyOf(tos, capacity);
+        }
+        flightNumbers[size] = flightNumber;
+        flightDays[size] = flightDay;
+        froms[size] = from;
+        tos[size] = to;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int getFlightNumber(int index) {
+        return flightNumbers[checkIndex(index)];
+    }
+
+    public int getFlightDay(int index) {
+        return flightDays[checkIndex(index)];
+    }
+
+    public int getFrom(int index) {
+        return froms[checkIndex(index)];
+    }
+
+    public int getTo(int index) {
+        return tos[checkIndex(index)];
+    }
+
+    /**
+     * Returns the cursor of this buffer positioned before the first flight. There is only one cursor per
+     * buffer, so a buffer can't be read by two threads at once.
+     */
+    public Cursor cursor() {
+        cursor.index = -1;
+        return cursor;
+    }
+
+    public Flight toFlight(int index) {
+        return new Flight(FlightNumber.unpack(getFlightNumber(index)), FlightDate.unpack(getFlightDay(index)),
+                AirportCode.unpack(getFrom(index)), AirportCode.unpack(getTo(index)));
+    }
+
+    public List<Flight> toFlights() {
+        List<Flight> flights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            flights.add(toFlight(i));
+        }
+        return flights;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    public class Cursor {
+        private int index = -1;
+
+        public boolean next() {
+            return ++index < size;
+        }
+
+        public int flightNumber() {
+            return flightNumbers[index];
+        }
+
+        public int flightDay() {
+            return flightDays[index];
+        }
+
+        public int from() {
+            return froms[index];
+        }
+
+        public int to() {
+            return tos[index];
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.compact;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Keeps up to {@code maxPooled} cleared {@link FlightBuffer}s for reuse. {@link #acquire()} creates a new buffer
+ * when the pool is empty, {@link #release(FlightBuffer)} drops the buffer when the pool is full.
+ */
+public class FlightBufferPool {
+    private final ArrayBlockingQueue<FlightBuffer> buffers;
+    private final int initialCapacity;
+
+    public FlightBufferPool(int maxPooled, int initialCapacity) {
+        if (maxPooled < 1) {
+            throw new IllegalArgumentException("maxPooled must be at least 1");
+        }
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+        this.initialCapacity = initialCapacity;
+    }
+
+    public FlightBuffer acquire() {
+        FlightBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new FlightBuffer(initialCapacity);
+    }
+
+    public void release(FlightBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+}
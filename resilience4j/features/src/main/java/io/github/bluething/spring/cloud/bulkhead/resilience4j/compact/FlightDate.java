@@ -0,0 +1,27 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.compact;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts the {@code MM/dd/yyyy} flight dates of {@code SearchRequest} and {@code Flight} to epoch days and back.
+ */
+public final class FlightDate {
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private FlightDate() {
+    }
+
+    public static int pack(String flightDate) {
+        try {
+            return Math.toIntExact(LocalDate.parse(flightDate, FORMAT).toEpochDay());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Flight date must be MM/dd/yyyy: " + flightDate, e);
+        }
+    }
+
+    public static String unpack(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).format(FORMAT);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.compact;
+
+/**
+ * Packs a flight number like {@code "XY 765"} into an int: the two character carrier code (digits or upper case
+ * letters) in the high bits and the number, at most 9999, in the low 14 bits.
+ */
+public final class FlightNumber {
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int NUMBER_BITS = 14;
+    private static final int MAX_NUMBER = 9999;
+
+    private FlightNumber() {
+    }
+
+    public static int pack(String flightNumber) {
+        if (flightNumber == null || flightNumber.length() < 3) {
+            throw new IllegalArgumentException("Flight number must have a carrier code and a number: " + flightNumber);
+        }
+        int carrier = carrierIndex(flightNumber, 0) * ALPHABET.length() + carrierIndex(flightNumber, 1);
+        int number;
+        try {
+            number = Integer.parseInt(flightNumber.substring(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Flight number must end with a number: " + flightNumber, e);
+        }
+        return pack(carrier, number);
+    }
+
+    public static int pack(int carrier, int number) {
+        if (number < 0 || number > MAX_NUMBER) {
+            throw new IllegalArgumentException("Flight number must be between 0 and " + MAX_NUMBER + ": " + number);
+        }
+        return carrier << NUMBER_BITS | number;
+    }
+
+    public static int carrier(int packed) {
+        return packed >>> NUMBER_BITS;
+    }
+
+    public static int number(int packed) {
+        return packed & (1 << NUMBER_BITS) - 1;
+    }
+
+    public static String unpack(int packed) {
+        int carrier = carrier(packed);
+        return "" + ALPHABET.charAt(carrier / ALPHABET.length()) + ALPHABET.charAt(carrier % ALPHABET.length()) + ' ' + number(packed);
+    }
+
+    private static int carrierIndex(String flightNumber, int position) {
+        int index = ALPHABET.indexOf(flightNumber.charAt(position));
+        if (index < 0) {
+            throw new IllegalArgumentException("Carrier code must have digits or upper case letters only: " + flightNumber);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,255 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.BulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A semaphore {@link Bulkhead} that looks at the {@link Deadline#current() current deadline} before waiting.
+ * The service time is an exponentially weighted average of finished calls. A call is rejected with
+ * {@link DeadlineExceededException} at once when the expected wait for a permit plus the service time
+ * would end after its deadline, and it never waits longer than its deadline minus the service time.
+ * Calls without a deadline behave like a plain semaphore bulkhead.
+ * <p>
+ * {@link #decorateSupplier(DeadlineAwareBulkhead, Supplier)} and
+ * {@link #decorateCompletionStage(DeadlineAwareBulkhead, Supplier)} measure every call on its own. A plain
+ * {@link #onComplete()} only measures a call that was acquired on the same thread, so a call completed on
+ * another thread, like one of {@code Bulkhead.decorateCompletionStage}, releases its permit without a sample.
+ */
+public class DeadlineAwareBulkhead implements Bulkhead {
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final Semaphore semaphore;
+    private final AtomicInteger waiters = new AtomicInteger();
+    // start of the call acquired on this thread, 0 once it was taken
+    private final ThreadLocal<long[]> startTime = ThreadLocal.withInitial(() -> new long[1]);
+    private final DeadlineAwareBulkheadMetrics metrics = new DeadlineAwareBulkheadMetrics();
+    private final BulkheadEventProcessor eventProcessor = new BulkheadEventProcessor();
+    private volatile BulkheadConfig config;
+    private volatile long serviceTimeNanos;
+
+    public DeadlineAwareBulkhead(String name, BulkheadConfig config, Duration initialServiceTime) {
+        this(name, config, initialServiceTime, HashMap.empty());
+    }
+
+    public DeadlineAwareBulkhead(String name, BulkheadConfig config, Duration initialServiceTime, Map<String, String> tags) {
+        this.name = name;
+        this.config = config;
+        this.tags = tags;
+        this.semaphore = new Semaphore(config.getMaxConcurrentCalls(), config.isFairCallHandlingEnabled());
+        this.serviceTimeNanos = initialServiceTime.toNanos();
+    }
+
+    /**
+     * Replaces the entry {@code name} of the registry with a deadline aware bulkhead built from the entry's
+     * config and tags.
+     */
+    public static DeadlineAwareBulkhead register(BulkheadRegistry bulkheadRegistry, String name, Duration initialServiceTime) {
+        Bulkhead template = bulkheadRegistry.bulkhead(name);
+        if (template instanceof DeadlineAwareBulkhead) {
+            return (DeadlineAwareBulkhead) template;
+        }
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead(name, template.getBulkheadConfig(), initialServiceTime, template.getTags());
+        bulkheadRegistry.replace(name, bulkhead);
+        return bulkhead;
+    }
+
+    public static <T> Supplier<T> decorateSupplier(DeadlineAwareBulkhead bulkhead, Supplier<T> supplier) {
+        return () -> {
+            bulkhead.acquirePermission();
+            long startNanos = bulkhead.takeStartTime();
+            try {
+                return supplier.get();
+            } finally {
+                bulkhead.complete(startNanos);
+            }
+        };
+    }
+
+    public static <T> Supplier<CompletionStage<T>> decorateCompletionStage(DeadlineAwareBulkhead bulkhead, Supplier<CompletionStage<T>> supplier) {
+        return () -> {
+            CompletableFuture<T> promise = new CompletableFuture<>();
+            try {
+                bulkhead.acquirePermission();
+            } catch (RuntimeException e) {
+                promise.completeExceptionally(e);
+                return promise;
+            }
+            long startNanos = bulkhead.takeStartTime();
+            try {
+                supplier.get().whenComplete((result, throwable) -> {
+                    bulkhead.complete(startNanos);
+                    if (throwable != null) {
+                        promise.completeExceptionally(throwable);
+                    } else {
+                        promise.complete(result);
+                    }
+                });
+            } catch (Throwable t) {
+                bulkhead.complete(startNanos);
+                promise.completeExceptionally(t);
+            }
+            return promise;
+        };
+    }
+
+    /**
+     * Resizes the semaphore like the stock semaphore bulkhead, shrinking waits until enough calls have finished.
+     */
+    @Override
+    public synchronized void changeConfig(BulkheadConfig newConfig) {
+        int delta = newConfig.getMaxConcurrentCalls() - config.getMaxConcurrentCalls();
+        if (delta < 0) {
+            semaphore.acquireUninterruptibly(-delta);
+        } else if (delta > 0) {
+            semaphore.release(delta);
+        }
+        config = newConfig;
+    }
+
+    @Override
+    public boolean tryAcquirePermission() {
+        boolean permitted = Deadline.current().map(this::acquire).orElseGet(() -> acquire(config.getMaxWaitDuration().toNanos()));
+        eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(name) : new BulkheadOnCallRejectedEvent(name));
+        return permitted;
+    }
+
+    @Override
+    public void acquirePermission() {
+        Deadline deadline = Deadline.current().orElse(null);
+        boolean permitted = deadline == null ? acquire(config.getMaxWaitDuration().toNanos()) : acquire(deadline);
+        eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(name) : new BulkheadOnCallRejectedEvent(name));
+        if (!permitted) {
+            if (deadline != null) {
+                throw new DeadlineExceededException(String.format("Bulkhead '%s' can not finish the call before its deadline, %s", name, deadline));
+            }
+            throw BulkheadFullException.createBulkheadFullException(this);
+        }
+    }
+
+    private boolean acquire(Deadline deadline) {
+        long budgetNanos = deadline.remainingNanos() - serviceTimeNanos;
+        if (budgetNanos < 0) {
+            return false;
+        }
+        if (semaphore.tryAcquire()) {
+            return started();
+        }
+        if (expectedWaitNanos() > budgetNanos) {
+            return false;
+        }
+        return acquire(Math.min(budgetNanos, config.getMaxWaitDuration().toNanos()));
+    }
+
+    private boolean acquire(long timeoutNanos) {
+        waiters.incrementAndGet();
+        try {
+            return semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS) && started();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private boolean started() {
+        startTime.get()[0] = System.nanoTime();
+        return true;
+    }
+
+    // every maxConcurrentCalls waiters ahead of us add one service time
+    long expectedWaitNanos() {
+        return (waiters.get() / config.getMaxConcurrentCalls() + 1) * serviceTimeNanos;
+    }
+
+    private long takeStartTime() {
+        long[] slot = startTime.get();
+        long startNanos = slot[0];
+        slot[0] = 0;
+        return startNanos;
+    }
+
+    @Override
+    public void releasePermission() {
+        takeStartTime();
+        semaphore.release();
+    }
+
+    @Override
+    public void onComplete() {
+        complete(takeStartTime());
+    }
+
+    private void complete(long startNanos) {
+        if (startNanos != 0) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            serviceTimeNanos = (long) (SMOOTHING * elapsedNanos + (1 - SMOOTHING) * serviceTimeNanos);
+        }
+        semaphore.release();
+        eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(name));
+    }
+
+    public Duration getServiceTime() {
+        return Duration.ofNanos(serviceTimeNanos);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DeadlineAwareBulkhead '%s'", name);
+    }
+
+    private class DeadlineAwareBulkheadMetrics implements Metrics {
+        @Override
+        public int getAvailableConcurrentCalls() {
+            return semaphore.availablePermits();
+        }
+
+        @Override
+        public int getMaxAllowedConcurrentCalls() {
+            return config.getMaxConcurrentCalls();
+        }
+    }
+}
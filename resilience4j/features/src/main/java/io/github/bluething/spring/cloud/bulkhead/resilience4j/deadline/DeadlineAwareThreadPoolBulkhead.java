@@ -0,0 +1,115 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deadline handling for calls submitted to a {@link ThreadPoolBulkhead}. The deadline is taken from the
+ * submitting thread. A call whose deadline has passed is not submitted, a queued call whose deadline passes
+ * before a thread picks it up is skipped instead of run, and the returned stage fails with
+ * {@link DeadlineExceededException} when the deadline passes, whether or not the call has started. A call
+ * still running at its deadline is interrupted, and the deadline timer is cancelled when a call finishes early.
+ */
+public final class DeadlineAwareThreadPoolBulkhead {
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private DeadlineAwareThreadPoolBulkhead() {
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // calls that finish early cancel their timer, don't keep those until their deadline
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    public static <T> Supplier<CompletionStage<T>> decorateSupplier(ThreadPoolBulkhead bulkhead, Supplier<T> supplier) {
+        return () -> {
+            Deadline deadline = Deadline.current().orElse(null);
+            if (deadline == null) {
+                return bulkhead.submit(supplier::get);
+            }
+            CompletableFuture<T> result = new CompletableFuture<>();
+            if (deadline.isExpired()) {
+                result.completeExceptionally(expired(bulkhead, deadline));
+                return result;
+            }
+            RunningCall runningCall = new RunningCall();
+            Callable<T> callable = () -> {
+                if (deadline.isExpired() || result.isDone() || !runningCall.start()) {
+                    throw expired(bulkhead, deadline);
+                }
+                try {
+                    return supplier.get();
+                } finally {
+                    runningCall.finish();
+                }
+            };
+            ScheduledFuture<?> timeout = TIMER.schedule(() -> {
+                if (result.completeExceptionally(expired(bulkhead, deadline))) {
+                    runningCall.expire();
+                }
+            }, deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            CompletionStage<T> submitted;
+            try {
+                submitted = bulkhead.submit(deadline.bind(callable));
+            } catch (RuntimeException e) {
+                timeout.cancel(false);
+                throw e;
+            }
+            submitted.whenComplete((r, t) -> {
+                timeout.cancel(false);
+                if (t != null) {
+                    result.completeExceptionally(t);
+                } else {
+                    result.complete(r);
+                }
+            });
+            return result;
+        };
+    }
+
+    private static DeadlineExceededException expired(ThreadPoolBulkhead bulkhead, Deadline deadline) {
+        return new DeadlineExceededException(String.format("Deadline of a call to bulkhead '%s' has passed, %s", bulkhead.getName(), deadline));
+    }
+
+    // interrupts the thread of a call only while it runs that call, never the next task of the pool thread
+    private static class RunningCall {
+        private Thread thread;
+        private boolean expired;
+
+        synchronized boolean start() {
+            if (expired) {
+                return false;
+            }
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void finish() {
+            thread = null;
+            if (expired) {
+                // the interrupt sent for this call must not reach the next task
+                Thread.interrupted();
+            }
+        }
+
+        synchronized void expire() {
+            expired = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
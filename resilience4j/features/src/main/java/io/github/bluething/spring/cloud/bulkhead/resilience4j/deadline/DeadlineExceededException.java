@@ -0,0 +1,10 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline;
+
+/**
+ * Thrown instead of running a call that can no longer finish before its {@link Deadline}.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,328 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.distributed;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.BulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.github.resilience4j.core.NamingThreadFactory;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Bulkhead} sharing one concurrency budget with the other nodes of a cluster. Permits are leased from a
+ * {@link PermitCoordinator} {@code blockSize} at a time and handed out locally, so the coordinator is only called
+ * when the local block runs out or more than one block is idle. The coordinator is never called with the local
+ * lock held. Only one call at a time leases, the other waiting calls wait for its answer, and after an empty
+ * answer the node asks again at most every 10ms until {@code maxWaitDuration} is over. The lease is renewed in
+ * the background, three times per lease time to live, and a node that had no calls since the last renewal gives
+ * its idle permits back. When the renewal finds that the lease has expired, the node starts again with no
+ * permits; calls still in flight then count against the next lease. The global limit is the one of the
+ * coordinator, {@code maxConcurrentCalls} of the config is ignored.
+ */
+public class DistributedBulkhead implements Bulkhead, AutoCloseable {
+    private static final long LEASE_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final String name;
+    private volatile BulkheadConfig config;
+    private final PermitCoordinator coordinator;
+    private final String nodeId;
+    private final int blockSize;
+    private final Map<String, String> tags;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final ScheduledExecutorService heartbeat;
+    private final DistributedBulkheadMetrics metrics = new DistributedBulkheadMetrics();
+    private final BulkheadEventProcessor eventProcessor = new BulkheadEventProcessor();
+    private int leased;
+    private int inUse;
+    private int waiters;
+    private boolean closed;
+    private boolean acquiredSinceHeartbeat;
+    private boolean coordinatorBusy;
+    private long nextLeaseAttempt = System.nanoTime();
+
+    public DistributedBulkhead(String name, BulkheadConfig config, PermitCoordinator coordinator, String nodeId, int blockSize) {
+        this(name, config, coordinator, nodeId, blockSize, HashMap.empty());
+    }
+
+    public DistributedBulkhead(String name, BulkheadConfig config, PermitCoordinator coordinator, String nodeId, int blockSize, Map<String, String> tags) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be at least 1");
+        }
+        this.name = name;
+        this.config = config;
+        this.coordinator = coordinator;
+        this.nodeId = nodeId;
+        this.blockSize = blockSize;
+        this.tags = tags;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("bulkhead-lease-" + name));
+        long heartbeatNanos = Math.max(1, coordinator.getLeaseTimeToLive().toNanos() / 3);
+        heartbeat.scheduleAtFixedRate(this::renewLease, heartbeatNanos, heartbeatNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Replaces the entry {@code name} of the registry with a distributed bulkhead built from the entry's config
+     * and tags. The global limit is the one of the coordinator, {@code maxConcurrentCalls} is ignored.
+     */
+    public static DistributedBulkhead register(BulkheadRegistry bulkheadRegistry, String name, PermitCoordinator coordinator, String nodeId, int blockSize) {
+        Bulkhead template = bulkheadRegistry.bulkhead(name);
+        if (template instanceof DistributedBulkhead) {
+            return (DistributedBulkhead) template;
+        }
+        DistributedBulkhead bulkhead = new DistributedBulkhead(name, template.getBulkheadConfig(), coordinator, nodeId, blockSize, template.getTags());
+        bulkheadRegistry.replace(name, bulkhead);
+        return bulkhead;
+    }
+
+    /**
+     * Takes the new config for the next calls. Its {@code maxConcurrentCalls} has no effect, the global limit
+     * belongs to the coordinator.
+     */
+    @Override
+    public void changeConfig(BulkheadConfig newConfig) {
+        config = newConfig;
+    }
+
+    @Override
+    public boolean tryAcquirePermission() {
+        boolean permitted = acquire(config.getMaxWaitDuration().toNanos());
+        eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(name) : new BulkheadOnCallRejectedEvent(name));
+        return permitted;
+    }
+
+    @Override
+    public void acquirePermission() {
+        if (!tryAcquirePermission()) {
+            throw BulkheadFullException.createBulkheadFullException(this);
+        }
+    }
+
+    // one waiter at a time asks the coordinator, without holding the lock, and wakes the others when it is done
+    private boolean acquire(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        lock.lock();
+        try {
+            while (!closed) {
+                if (inUse < leased) {
+                    inUse++;
+                    acquiredSinceHeartbeat = true;
+                    return true;
+                }
+                long now = System.nanoTime();
+                if (!coordinatorBusy && now - nextLeaseAttempt >= 0) {
+                    lease();
+                    continue;
+                }
+                long remainingNanos = deadline - now;
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                waiters++;
+                try {
+                    permitReleased.awaitNanos(Math.min(remainingNanos, LEASE_RETRY_NANOS));
+                } finally {
+                    waiters--;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lease() {
+        coordinatorBusy = true;
+        int granted = 0;
+        lock.unlock();
+        try {
+            granted = coordinator.lease(nodeId, blockSize);
+        } finally {
+            lock.lock();
+            coordinatorBusy = false;
+            if (granted == 0) {
+                nextLeaseAttempt = System.nanoTime() + LEASE_RETRY_NANOS;
+            } else if (closed) {
+                giveBack(granted);
+            } else {
+                leased += granted;
+            }
+            permitReleased.signalAll();
+        }
+    }
+
+    // called with the lock held, releases it for the call to the coordinator
+    private void giveBack(int permits) {
+        lock.unlock();
+        try {
+            coordinator.release(nodeId, permits);
+        } finally {
+            lock.lock();
+        }
+    }
+
+    @Override
+    public void releasePermission() {
+        int surplus = 0;
+        lock.lock();
+        try {
+            inUse--;
+            if (closed) {
+                if (leased > inUse) {
+                    surplus = leased - inUse;
+                }
+            } else if (waiters > 0) {
+                permitReleased.signal();
+            } else if (leased - inUse > blockSize) {
+                surplus = leased - inUse - blockSize;
+            }
+            leased -= surplus;
+        } finally {
+            lock.unlock();
+        }
+        if (surplus > 0) {
+            coordinator.release(nodeId, surplus);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        releasePermission();
+        eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(name));
+    }
+
+    private void renewLease() {
+        boolean heartbeatNeeded;
+        lock.lock();
+        try {
+            // a lease in flight renews the lease as well
+            if (coordinatorBusy || closed) {
+                return;
+            }
+            coordinatorBusy = true;
+            heartbeatNeeded = leased > 0;
+        } finally {
+            lock.unlock();
+        }
+        boolean alive = true;
+        int idle = 0;
+        try {
+            alive = !heartbeatNeeded || coordinator.heartbeat(nodeId);
+        } finally {
+            lock.lock();
+            try {
+                coordinatorBusy = false;
+                if (!alive) {
+                    leased = 0;
+                } else if (!acquiredSinceHeartbeat && leased > inUse) {
+                    idle = leased - inUse;
+                    leased = inUse;
+                }
+                acquiredSinceHeartbeat = false;
+                permitReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (idle > 0) {
+            coordinator.release(nodeId, idle);
+        }
+    }
+
+    /**
+     * Stops renewing the lease and gives the idle permits back. Permits of calls still in flight are given back
+     * as they finish.
+     */
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        int idle = 0;
+        lock.lock();
+        try {
+            closed = true;
+            if (leased > inUse) {
+                idle = leased - inUse;
+                leased = inUse;
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (idle > 0) {
+            coordinator.release(nodeId, idle);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getLeasedPermits() {
+        lock.lock();
+        try {
+            return leased;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DistributedBulkhead '%s' on node '%s'", name, nodeId);
+    }
+
+    // only the local share is known without asking the coordinator
+    private class DistributedBulkheadMetrics implements Metrics {
+        @Override
+        public int getAvailableConcurrentCalls() {
+            lock.lock();
+            try {
+                return Math.max(0, leased - inUse);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int getMaxAllowedConcurrentCalls() {
+            return getLeasedPermits();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.distributed;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An in-process {@link PermitCoordinator}, standing in for a shared store like a database or a consensus
+ * service. Expired leases are taken back whenever the coordinator is called.
+ */
+public class InMemoryPermitCoordinator implements PermitCoordinator {
+    private final int globalLimit;
+    private final Duration leaseTimeToLive;
+    private final Map<String, NodeLease> leases = new HashMap<>();
+    private int available;
+
+    public InMemoryPermitCoordinator(int globalLimit, Duration leaseTimeToLive) {
+        if (globalLimit < 1) {
+            throw new IllegalArgumentException("globalLimit must be at least 1");
+        }
+        if (leaseTimeToLive.isNegative() || leaseTimeToLive.isZero()) {
+            throw new IllegalArgumentException("leaseTimeToLive must be positive");
+        }
+        this.globalLimit = globalLimit;
+        this.leaseTimeToLive = leaseTimeToLive;
+        this.available = globalLimit;
+    }
+
+    @Override
+    public synchronized int lease(String nodeId, int permits) {
+        expireLeases();
+        int granted = Math.min(permits, available);
+        available -= granted;
+        NodeLease lease = leases.computeIfAbsent(nodeId, id -> new NodeLease());
+        lease.permits += granted;
+        lease.renew();
+        return granted;
+    }
+
+    @Override
+    public synchronized void release(String nodeId, int permits) {
+        expireLeases();
+        NodeLease lease = leases.get(nodeId);
+        if (lease == null) {
+            return;
+        }
+        int released = Math.min(permits, lease.permits);
+        lease.permits -= released;
+        available += released;
+        if (lease.permits == 0) {
+            leases.remove(nodeId);
+        }
+    }
+
+    @Override
+    public synchronized boolean heartbeat(String nodeId) {
+        expireLeases();
+        NodeLease lease = leases.get(nodeId);
+        if (lease == null) {
+            return false;
+        }
+        lease.renew();
+        return true;
+    }
+
+    @Override
+    public Duration getLeaseTimeToLive() {
+        return leaseTimeToLive;
+    }
+
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+
+    public synchronized int getAvailablePermits() {
+        expireLeases();
+        return available;
+    }
+
+    public synchronized int getLeasedPermits(String nodeId) {
+        expireLeases();
+        NodeLease lease = leases.get(nodeId);
+        return lease == null ? 0 : lease.permits;
+    }
+
+    private void expireLeases() {
+        long now = System.nanoTime();
+        Iterator<NodeLease> iterator = leases.values().iterator();
+        while (iterator.hasNext()) {
+            NodeLease lease = iterator.next();
+            if (now - lease.expiresAt >= 0) {
+                available += lease.permits;
+                iterator.remove();
+            }
+        }
+    }
+
+    private class NodeLease {
+        int permits;
+        long expiresAt;
+
+        void renew() {
+            expiresAt = System.nanoTime() + leaseTimeToLive.toNanos();
+        }
+    }
+}
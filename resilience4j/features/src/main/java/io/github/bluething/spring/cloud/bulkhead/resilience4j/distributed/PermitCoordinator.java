@@ -0,0 +1,28 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.distributed;
+
+import java.time.Duration;
+
+/**
+ * Hands out blocks of a cluster wide permit budget to nodes. A node keeps its lease alive with
+ * {@link #heartbeat(String)}, the permits of a node that stops doing so return to the budget once its lease
+ * expires.
+ */
+public interface PermitCoordinator {
+    /**
+     * Leases up to {@code permits} more permits to the node and renews its lease.
+     *
+     * @return the number of permits granted, zero when the budget is used up
+     */
+    int lease(String nodeId, int permits);
+
+    void release(String nodeId, int permits);
+
+    /**
+     * Renews the lease of the node.
+     *
+     * @return false when the lease had already expired and its permits were taken back
+     */
+    boolean heartbeat(String nodeId);
+
+    Duration getLeaseTimeToLive();
+}
@@ -0,0 +1,165 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.event;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.core.NamingThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Records bulkhead events into a preallocated ring buffer and aggregates them on a background thread.
+ * Recording is a CAS and three array writes, no event object is kept and nothing is printed on the
+ * caller thread. When the drainer falls behind by {@code capacity} events new events are dropped and
+ * counted instead of blocking the caller.
+ */
+public class RingBufferEventSink implements AutoCloseable {
+    public static final int PERMITTED = 0;
+    public static final int REJECTED = 1;
+    public static final int FINISHED = 2;
+
+    private final int mask;
+    private final int[] types;
+    private final long[] durations;
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long tail;
+    // the ring has a single consumer, close() and callers of drain() must not run next to the drainer
+    private final Object drainLock = new Object();
+
+    private final Counter[] eventCounters;
+    private final Timer callTimer;
+    private final ScheduledExecutorService drainer;
+
+    public RingBufferEventSink(String name, int capacity, Duration drainInterval, MeterRegistry meterRegistry) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.types = new int[capacity];
+        this.durations = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+
+        String[] kinds = {"permitted", "rejected", "finished"};
+        this.eventCounters = new Counter[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            eventCounters[i] = Counter.builder("resilience4j.bulkhead.events")
+                    .description("The number of bulkhead events drained from the ring buffer")
+                    .tags("name", name, "kind", kinds[i])
+                    .register(meterRegistry);
+        }
+        this.callTimer = Timer.builder("resilience4j.bulkhead.call.duration")
+                .description("The time between permit and finish of a call")
+                .tags("name", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience4j.bulkhead.events.dropped", dropped, AtomicLong::get)
+                .description("The number of bulkhead events dropped because the ring buffer was full")
+                .tags("name", name)
+                .register(meterRegistry);
+
+        this.drainer = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory(name + "-event-drainer"));
+        long intervalNanos = drainInterval.toNanos();
+        drainer.scheduleWithFixedDelay(this::drain, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static <T> Supplier<T> decorateSupplier(Bulkhead bulkhead, RingBufferEventSink sink, Supplier<T> supplier) {
+        return () -> {
+            try {
+                bulkhead.acquirePermission();
+            } catch (BulkheadFullException e) {
+                sink.record(REJECTED, -1);
+                throw e;
+            }
+            sink.record(PERMITTED, -1);
+            long start = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                bulkhead.onComplete();
+                sink.record(FINISHED, System.nanoTime() - start);
+            }
+        };
+    }
+
+    public RingBufferEventSink bind(Bulkhead bulkhead) {
+        bulkhead.getEventPublisher()
+                .onCallPermitted(event -> record(PERMITTED, -1))
+                .onCallRejected(event -> record(REJECTED, -1))
+                .onCallFinished(event -> record(FINISHED, -1));
+        return this;
+    }
+
+    public RingBufferEventSink bind(ThreadPoolBulkhead bulkhead) {
+        bulkhead.getEventPublisher()
+                .onCallPermitted(event -> record(PERMITTED, -1))
+                .onCallRejected(event -> record(REJECTED, -1))
+                .onCallFinished(event -> record(FINISHED, -1));
+        return this;
+    }
+
+    /**
+     * @param durationNanos call duration of a finished event, or a negative value when unknown
+     * @return false if the event was dropped because the buffer is full
+     */
+    public boolean record(int type, long durationNanos) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        types[slot] = type;
+        durations[slot] = durationNanos;
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    public void drain() {
+        synchronized (drainLock) {
+            long sequence = tail;
+            int slot = (int) sequence & mask;
+            while (published.get(slot) == sequence) {
+                eventCounters[types[slot]].increment();
+                if (durations[slot] >= 0) {
+                    callTimer.record(durations[slot], TimeUnit.NANOSECONDS);
+                }
+                sequence++;
+                tail = sequence;
+                slot = (int) sequence & mask;
+            }
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+}
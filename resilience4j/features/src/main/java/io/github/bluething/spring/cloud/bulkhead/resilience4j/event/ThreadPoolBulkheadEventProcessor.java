@@ -0,0 +1,46 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.event;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.event.BulkheadEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.core.EventProcessor;
+
+import java.util.function.Supplier;
+
+/**
+ * Event publisher for custom {@link ThreadPoolBulkhead} implementations, the thread pool counterpart of
+ * {@link BulkheadEventProcessor}.
+ */
+public class ThreadPoolBulkheadEventProcessor extends EventProcessor<BulkheadEvent> implements ThreadPoolBulkhead.ThreadPoolBulkheadEventPublisher, EventConsumer<BulkheadEvent> {
+    @Override
+    public ThreadPoolBulkhead.ThreadPoolBulkheadEventPublisher onCallPermitted(EventConsumer<BulkheadOnCallPermittedEvent> onCallPermittedEventConsumer) {
+        registerConsumer(BulkheadOnCallPermittedEvent.class.getName(), onCallPermittedEventConsumer);
+        return this;
+    }
+
+    @Override
+    public ThreadPoolBulkhead.ThreadPoolBulkheadEventPublisher onCallRejected(EventConsumer<BulkheadOnCallRejectedEvent> onCallRejectedEventConsumer) {
+        registerConsumer(BulkheadOnCallRejectedEvent.class.getName(), onCallRejectedEventConsumer);
+        return this;
+    }
+
+    @Override
+    public ThreadPoolBulkhead.ThreadPoolBulkheadEventPublisher onCallFinished(EventConsumer<BulkheadOnCallFinishedEvent> onCallFinishedEventConsumer) {
+        registerConsumer(BulkheadOnCallFinishedEvent.class.getName(), onCallFinishedEventConsumer);
+        return this;
+    }
+
+    @Override
+    public void consumeEvent(BulkheadEvent event) {
+        super.processEvent(event);
+    }
+
+    public void publish(Supplier<BulkheadEvent> eventSupplier) {
+        if (hasConsumers()) {
+            consumeEvent(eventSupplier.get());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.bluething.spring.cloud.bulkhead.resilience4j.flight;
 
+import java.util.Objects;
+
 public class Flight {
     private final String flightNumber;
     private final String flightDate;
@@ -13,6 +15,36 @@ public class Flight {
         this.to = to;
     }
 
+    public String getFlightNumber() {
+        return flightNumber;
+    }
+
+    public String getFlightDate() {
+        return flightDate;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Flight flight = (Flight) o;
+        return Objects.equals(flightNumber, flight.flightNumber) && Objects.equals(flightDate, flight.flightDate)
+                && Objects.equals(from, flight.from) && Objects.equals(to, flight.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(flightNumber, flightDate, from, to);
+    }
+
     @Override
     public String toString() {
         return "Flight{" +
@@ -0,0 +1,7 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.flight;
+
+public enum Priority {
+    HIGH,
+    NORMAL,
+    LOW
+}
@@ -1,14 +1,22 @@
 package io.github.bluething.spring.cloud.bulkhead.resilience4j.flight;
 
+import java.util.Objects;
+
 public class SearchRequest {
     private final String from;
     private final String to;
     private final String flightDate;
+    private final Priority priority;
 
     public SearchRequest(String from, String to, String flightDate) {
+        this(from, to, flightDate, Priority.NORMAL);
+    }
+
+    public SearchRequest(String from, String to, String flightDate, Priority priority) {
         this.from = from;
         this.to = to;
         this.flightDate = flightDate;
+        this.priority = priority;
     }
 
     public String getFrom() {
@@ -22,4 +30,32 @@ public class SearchRequest {
     public String getFlightDate() {
         return flightDate;
     }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    // priority decides who gets a permit first, not what is searched, so it is left out of equals/hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchRequest that = (SearchRequest) o;
+        return Objects.equals(from, that.from) && Objects.equals(to, that.to) && Objects.equals(flightDate, that.flightDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, flightDate);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchRequest{" +
+                "from='" + from + '\'' +
+                ", to='" + to + '\'' +
+                ", flightDate='" + flightDate + '\'' +
+                ", priority=" + priority +
+                '}';
+    }
 }
@@ -1,12 +1,25 @@
 package io.github.bluething.spring.cloud.bulkhead.resilience4j.flight;
 
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.CompactSearchRequest;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightBuffer;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.compact.FlightNumber;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class Service {
+    private static final int XY_765 = FlightNumber.pack("XY 765");
+    private static final int XY_746 = FlightNumber.pack("XY 746");
+
     private final Random random;
     private final DateTimeFormatter dateTimeFormatter;
 
@@ -44,4 +57,63 @@ public class Service {
 
         return flights;
     }
+
+    public Map<SearchRequest, List<Flight>> searchFlightsInBatchTakingOneSecond(List<SearchRequest> searchRequests) throws InterruptedException {
+        Thread.sleep(1000);
+
+        System.out.println("Searching for " + searchRequests.size() + " requests; "
+                + "current time = " + LocalDateTime.now().format(dateTimeFormatter) +
+                "; current thread = " + Thread.currentThread().getName());
+
+        Map<SearchRequest, List<Flight>> flights = new LinkedHashMap<>();
+        for (SearchRequest searchRequest : searchRequests) {
+            flights.put(searchRequest, Arrays.asList(new Flight("XY 765", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()),
+                    new Flight("XY 746", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo())));
+        }
+
+        System.out.println("Flight search successful at " + LocalDateTime.now().format(dateTimeFormatter));
+
+        return flights;
+    }
+
+    public FlightBuffer searchFlightsTakingOneSecond(CompactSearchRequest searchRequest, FlightBuffer flights) throws InterruptedException {
+        Thread.sleep(1000);
+
+        System.out.println("Searching for flights; "
+                + "current time = " + LocalDateTime.now().format(dateTimeFormatter) +
+                "; current thread = " + Thread.currentThread().getName());
+
+        flights.add(XY_765, searchRequest.getFlightDay(), searchRequest.getFrom(), searchRequest.getTo());
+        flights.add(XY_746, searchRequest.getFlightDay(), searchRequest.getFrom(), searchRequest.getTo());
+
+        System.out.println("Flight search successful at " + LocalDateTime.now().format(dateTimeFormatter));
+
+        return flights;
+    }
+
+    // quiet variant for load tests, which make far too many calls to print each one
+    public List<Flight> searchFlights(SearchRequest searchRequest, Duration latency) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+
+        return Arrays.asList(new Flight("XY 765", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()),
+                new Flight("XY 746", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()));
+    }
+
+    // flights are produced one by one as the stream is consumed, each one taking flightMillis
+    public Stream<Flight> searchFlightsStreaming(SearchRequest searchRequest, int resultCount, long flightMillis) {
+        System.out.println("Streaming flights; "
+                + "current time = " + LocalDateTime.now().format(dateTimeFormatter) +
+                "; current thread = " + Thread.currentThread().getName());
+
+        return IntStream.range(0, resultCount)
+                .mapToObj(i -> {
+                    try {
+                        Thread.sleep(flightMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while streaming flights", e);
+                    }
+                    return new Flight("XY " + (100 + i), searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo());
+                });
+    }
 }
@@ -0,0 +1,325 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.hedge;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.core.NamingThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second attempt of a call through the bulkhead when the first one hasn't finished after the
+ * {@code percentile} of the execution times observed so far, and takes whichever finishes first. The other attempt
+ * is cancelled, which interrupts its thread. The bulkhead must have a zero {@code maxWaitDuration}, so a hedge
+ * only goes out when a permit is free right away and never queues behind real calls, and a call that finds the
+ * bulkhead full fails with a {@code BulkheadFullException}. Hedges are only sent while they stay below
+ * {@code maxHedgeRatio} of the calls. The latency of a call is measured from {@link #execute(Supplier)}, so a call
+ * won by its hedge counts as taking at least as long as it ran. Until {@code minSamples} latencies are known,
+ * {@code initialDelay} is used. A call that finishes before its hedge delay cancels the pending hedge.
+ */
+public class HedgingBulkhead implements AutoCloseable {
+    public static final String DEFAULT_CALLS_METRIC_NAME = "resilience4j.bulkhead.hedge.calls";
+    public static final String DEFAULT_HEDGES_METRIC_NAME = "resilience4j.bulkhead.hedge.hedges";
+    public static final String DEFAULT_WINS_METRIC_NAME = "resilience4j.bulkhead.hedge.wins";
+    public static final String DEFAULT_HEDGE_RATE_METRIC_NAME = "resilience4j.bulkhead.hedge.rate";
+    public static final String DEFAULT_WIN_RATE_METRIC_NAME = "resilience4j.bulkhead.hedge.win.rate";
+    public static final String DEFAULT_DELAY_METRIC_NAME = "resilience4j.bulkhead.hedge.delay";
+
+    private final Bulkhead bulkhead;
+    private final ExecutorService executorService;
+    private final ScheduledThreadPoolExecutor timer;
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final int minSamples;
+    private final double maxHedgeRatio;
+    private final long[] latencies;
+    private int recorded;
+    private volatile long hedgeDelayNanos;
+    private final Counter callCounter;
+    private final Counter hedgeCounter;
+    private final Counter winCounter;
+
+    private HedgingBulkhead(Builder builder) {
+        this.bulkhead = builder.bulkhead;
+        this.executorService = builder.executorService;
+        this.timer = new ScheduledThreadPoolExecutor(1, new NamingThreadFactory("bulkhead-hedge-" + bulkhead.getName()));
+        // a call that finishes before its hedge delay cancels the timer, which must not stay queued until it runs out
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.percentile = builder.percentile;
+        this.initialDelayNanos = builder.initialDelay.toNanos();
+        this.minSamples = builder.minSamples;
+        this.maxHedgeRatio = builder.maxHedgeRatio;
+        this.latencies = new long[builder.windowSize];
+        this.hedgeDelayNanos = initialDelayNanos;
+
+        MeterRegistry meterRegistry = builder.meterRegistry;
+        String name = bulkhead.getName();
+        this.callCounter = Counter.builder(DEFAULT_CALLS_METRIC_NAME)
+                .description("The number of hedged calls")
+                .tags("name", name)
+                .register(meterRegistry);
+        this.hedgeCounter = Counter.builder(DEFAULT_HEDGES_METRIC_NAME)
+                .description("The number of second attempts sent")
+                .tags("name", name)
+                .register(meterRegistry);
+        this.winCounter = Counter.builder(DEFAULT_WINS_METRIC_NAME)
+                .description("The number of second attempts that finished first")
+                .tags("name", name)
+                .register(meterRegistry);
+        Gauge.builder(DEFAULT_HEDGE_RATE_METRIC_NAME, this, HedgingBulkhead::getHedgeRate)
+                .description("The share of calls that sent a second attempt")
+                .tags("name", name)
+                .register(meterRegistry);
+        Gauge.builder(DEFAULT_WIN_RATE_METRIC_NAME, this, HedgingBulkhead::getWinRate)
+                .description("The share of second attempts that finished first")
+                .tags("name", name)
+                .register(meterRegistry);
+        Gauge.builder(DEFAULT_DELAY_METRIC_NAME, this, hedging -> hedging.getHedgeDelay().toNanos() / 1e9)
+                .description("The time after which a second attempt is sent")
+                .tags("name", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public static Builder custom(Bulkhead bulkhead, ExecutorService executorService, MeterRegistry meterRegistry) {
+        return new Builder(bulkhead, executorService, meterRegistry);
+    }
+
+    public <T> Supplier<CompletableFuture<T>> decorateSupplier(Supplier<T> supplier) {
+        return () -> execute(supplier);
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<T> supplier) {
+        callCounter.increment();
+        HedgedCall<T> call = new HedgedCall<>(supplier);
+        call.primary = call.attempt(false);
+        long delayNanos = hedgeDelayNanos;
+        call.hedgeTimer = timer.schedule(call::hedge, delayNanos, TimeUnit.NANOSECONDS);
+        if (call.result.isDone()) {
+            call.hedgeTimer.cancel(false);
+        }
+        return call.result;
+    }
+
+    public Duration getHedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos);
+    }
+
+    public double getHedgeRate() {
+        double calls = callCounter.count();
+        return calls == 0 ? 0 : hedgeCounter.count() / calls;
+    }
+
+    public double getWinRate() {
+        double hedges = hedgeCounter.count();
+        return hedges == 0 ? 0 : winCounter.count() / hedges;
+    }
+
+    int getScheduledHedges() {
+        return timer.getQueue().size();
+    }
+
+    private void record(long latencyNanos) {
+        synchronized (latencies) {
+            latencies[recorded % latencies.length] = latencyNanos;
+            recorded++;
+            // sorting the window on every call would cost more than the calls, so the delay is refreshed every 16
+            if (recorded >= minSamples && recorded % 16 == 0) {
+                long[] window = Arrays.copyOf(latencies, Math.min(recorded, latencies.length));
+                Arrays.sort(window);
+                hedgeDelayNanos = window[(int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1)];
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private class HedgedCall<T> {
+        private final Supplier<T> supplier;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicBoolean hedgeStarted = new AtomicBoolean();
+        private volatile Future<?> primary;
+        private volatile Future<?> hedge;
+        private volatile ScheduledFuture<?> hedgeTimer;
+        private volatile Throwable error;
+
+        HedgedCall(Supplier<T> supplier) {
+            this.supplier = supplier;
+            result.whenComplete((r, t) -> {
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                if (result.isCancelled()) {
+                    cancel(primary);
+                    cancel(hedge);
+                }
+            });
+        }
+
+        void hedge() {
+            if (result.isDone() || getHedgeRate() >= maxHedgeRatio
+                    || !bulkhead.getBulkheadConfig().getMaxWaitDuration().isZero() || !bulkhead.tryAcquirePermission()) {
+                return;
+            }
+            running.incrementAndGet();
+            hedgeCounter.increment();
+            hedge = attempt(true);
+            if (result.isDone()) {
+                cancel(hedge);
+            }
+        }
+
+        // a hedge already holds its permit, a cancelled hedge that never ran gives it back here
+        Future<?> attempt(boolean isHedge) {
+            FutureTask<Void> task = new FutureTask<Void>(() -> run(isHedge), null) {
+                @Override
+                protected void done() {
+                    if (isHedge && isCancelled() && hedgeStarted.compareAndSet(false, true)) {
+                        bulkhead.releasePermission();
+                        failed(null);
+                    }
+                }
+            };
+            try {
+                executorService.execute(task);
+            } catch (RejectedExecutionException e) {
+                if (isHedge && hedgeStarted.compareAndSet(false, true)) {
+                    bulkhead.releasePermission();
+                }
+                failed(e);
+                return null;
+            }
+            return task;
+        }
+
+        private void run(boolean isHedge) {
+            T value;
+            if (isHedge && !hedgeStarted.compareAndSet(false, true)) {
+                return;
+            }
+            if (!isHedge) {
+                try {
+                    bulkhead.acquirePermission();
+                } catch (RuntimeException e) {
+                    failed(e);
+                    return;
+                }
+            }
+            try {
+                value = supplier.get();
+            } catch (Throwable t) {
+                bulkhead.onComplete();
+                failed(t);
+                return;
+            }
+            bulkhead.onComplete();
+            if (result.complete(value)) {
+                record(System.nanoTime() - startNanos);
+                if (isHedge) {
+                    winCounter.increment();
+                    cancel(primary);
+                } else {
+                    cancel(hedge);
+                }
+            }
+        }
+
+        // the call fails with the last error once no attempt is left running
+        private void failed(Throwable t) {
+            if (t != null) {
+                error = t;
+            }
+            if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private void cancel(Future<?> attempt) {
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final Bulkhead bulkhead;
+        private final ExecutorService executorService;
+        private final MeterRegistry meterRegistry;
+        private double percentile = 0.9;
+        private Duration initialDelay = Duration.ofSeconds(1);
+        private int minSamples = 20;
+        private int windowSize = 256;
+        private double maxHedgeRatio = 1.0;
+
+        private Builder(Bulkhead bulkhead, ExecutorService executorService, MeterRegistry meterRegistry) {
+            this.bulkhead = bulkhead;
+            this.executorService = executorService;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public Builder percentile(double percentile) {
+            if (percentile <= 0 || percentile >= 1) {
+                throw new IllegalArgumentException("percentile must be between 0 and 1");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        public Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        public Builder minSamples(int minSamples) {
+            if (minSamples < 1) {
+                throw new IllegalArgumentException("minSamples must be at least 1");
+            }
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        public Builder windowSize(int windowSize) {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("windowSize must be at least 1");
+            }
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        public Builder maxHedgeRatio(double maxHedgeRatio) {
+            if (maxHedgeRatio < 0 || maxHedgeRatio > 1) {
+                throw new IllegalArgumentException("maxHedgeRatio must be between 0 and 1");
+            }
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        public HedgingBulkhead build() {
+            if (!bulkhead.getBulkheadConfig().getMaxWaitDuration().isZero()) {
+                throw new IllegalArgumentException("bulkhead must have a zero maxWaitDuration");
+            }
+            if (minSamples > windowSize) {
+                throw new IllegalArgumentException("minSamples must not be larger than windowSize");
+            }
+            return new HedgingBulkhead(this);
+        }
+    }
+}
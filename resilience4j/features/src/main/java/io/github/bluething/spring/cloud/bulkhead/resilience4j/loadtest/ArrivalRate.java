@@ -0,0 +1,34 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest;
+
+import java.time.Duration;
+
+/**
+ * The number of calls per second a {@link LoadGenerator} starts, as a function of the time since the start of
+ * the run. Calls are started on schedule whether or not earlier calls have finished.
+ */
+@FunctionalInterface
+public interface ArrivalRate {
+    double callsPerSecond(double elapsedSeconds);
+
+    static ArrivalRate constant(double callsPerSecond) {
+        return elapsedSeconds -> callsPerSecond;
+    }
+
+    /**
+     * Goes linearly from {@code fromCallsPerSecond} to {@code toCallsPerSecond} in {@code rampTime} and stays there.
+     */
+    static ArrivalRate ramp(double fromCallsPerSecond, double toCallsPerSecond, Duration rampTime) {
+        double rampSeconds = rampTime.toNanos() / 1e9;
+        return elapsedSeconds -> elapsedSeconds >= rampSeconds
+                ? toCallsPerSecond
+                : fromCallsPerSecond + (toCallsPerSecond - fromCallsPerSecond) * elapsedSeconds / rampSeconds;
+    }
+
+    /**
+     * Starts at {@code startCallsPerSecond} and adds {@code stepCallsPerSecond} every {@code stepTime}.
+     */
+    static ArrivalRate step(double startCallsPerSecond, double stepCallsPerSecond, Duration stepTime) {
+        double stepSeconds = stepTime.toNanos() / 1e9;
+        return elapsedSeconds -> startCallsPerSecond + stepCallsPerSecond * Math.floor(elapsedSeconds / stepSeconds);
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The latency of the simulated flight provider, sampled once per call.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    Duration sample();
+
+    static LatencyDistribution fixed(Duration latency) {
+        return () -> latency;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+    }
+
+    static LatencyDistribution exponential(Duration mean) {
+        return () -> Duration.ofNanos((long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * mean.toNanos()));
+    }
+
+    /**
+     * A long tailed distribution, {@code sigma} around 0.5 gives a p99 of about three times the median.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        return () -> Duration.ofNanos((long) (median.toNanos() * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * An open model load generator: calls are started at the times the {@link ArrivalRate} gives, no matter how many
+ * are still running, so an overloaded bulkhead sees more load instead of a slower client. Each call's response
+ * time is measured from its scheduled start, which keeps a stalled generator from hiding latency. After
+ * {@code duration} the generator waits up to {@code drainTimeout} for calls still running.
+ */
+public class LoadGenerator {
+    private static final double MAX_STEP_SECONDS = 0.001;
+
+    private final ArrivalRate arrivalRate;
+    private final Duration duration;
+    private final Duration drainTimeout;
+
+    private LoadGenerator(Builder builder) {
+        this.arrivalRate = builder.arrivalRate;
+        this.duration = builder.duration;
+        this.drainTimeout = builder.drainTimeout;
+    }
+
+    public static Builder custom(ArrivalRate arrivalRate, Duration duration) {
+        return new Builder(arrivalRate, duration);
+    }
+
+    /**
+     * Runs {@code work}, the simulated provider call, through the target and blocks until the run is over.
+     */
+    public LoadResult run(String scenario, LoadTarget target, Supplier<?> work) {
+        Histogram responseTimes = new ConcurrentHistogram(3);
+        Histogram serviceTimes = new ConcurrentHistogram(3);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong outstanding = new AtomicLong();
+        long sent = 0;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double durationSeconds = duration.toNanos() / 1e9;
+        double elapsedSeconds = 0;
+        while (true) {
+            elapsedSeconds = nextArrival(elapsedSeconds, durationSeconds);
+            long scheduled = start + (long) (elapsedSeconds * 1e9);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sent++;
+            outstanding.incrementAndGet();
+            Supplier<?> timedWork = () -> {
+                long serviceStart = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    serviceTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - serviceStart));
+                }
+            };
+            try {
+                target.call(timedWork).whenComplete((r, t) -> {
+                    if (t == null) {
+                        responseTimes.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled));
+                        completed.incrementAndGet();
+                    } else if (isRejection(t)) {
+                        rejected.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    outstanding.decrementAndGet();
+                });
+            } catch (BulkheadFullException | RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                outstanding.decrementAndGet();
+            }
+        }
+
+        // the last call may come well before the end when the rate drops to zero
+        long idle;
+        while ((idle = end - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(idle);
+        }
+        long drainEnd = System.nanoTime() + drainTimeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() < drainEnd) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return new LoadResult(scenario, (System.nanoTime() - start) / 1e9, sent, completed.get(), rejected.get(), failed.get(), outstanding.get(),
+                percentiles(responseTimes, 50, 90, 99, 99.9, 100), percentiles(serviceTimes, 50, 99));
+    }
+
+    /**
+     * Returns the time at which the rate, integrated from {@code fromSeconds}, adds up to one call. The rate is
+     * sampled at least every millisecond, so a ramp or step is followed even where it is close to zero, and a
+     * rate of zero until {@code endSeconds} returns {@code endSeconds}.
+     */
+    private double nextArrival(double fromSeconds, double endSeconds) {
+        double elapsedSeconds = fromSeconds;
+        double calls = 0;
+        while (elapsedSeconds < endSeconds) {
+            double callsPerSecond = Math.max(0, arrivalRate.callsPerSecond(elapsedSeconds));
+            double stepSeconds = callsPerSecond > 0 ? Math.min(MAX_STEP_SECONDS, (1 - calls) / callsPerSecond) : MAX_STEP_SECONDS;
+            calls += callsPerSecond * stepSeconds;
+            elapsedSeconds += stepSeconds;
+            if (calls >= 1 - 1e-9) {
+                return elapsedSeconds;
+            }
+        }
+        return endSeconds;
+    }
+
+    private static boolean isRejection(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        return cause instanceof BulkheadFullException || cause instanceof RejectedExecutionException;
+    }
+
+    private static double[] percentiles(Histogram histogram, double... percentiles) {
+        double[] millis = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            millis[i] = percentiles[i] == 100 ? histogram.getMaxValue() / 1000.0 : histogram.getValueAtPercentile(percentiles[i]) / 1000.0;
+        }
+        return millis;
+    }
+
+    public static class Builder {
+        private final ArrivalRate arrivalRate;
+        private final Duration duration;
+        private Duration drainTimeout = Duration.ofSeconds(30);
+
+        private Builder(ArrivalRate arrivalRate, Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive");
+            }
+            this.arrivalRate = arrivalRate;
+            this.duration = duration;
+        }
+
+        public Builder drainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        public LoadGenerator build() {
+            return new LoadGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The outcome of one {@link LoadGenerator} run. Response times are measured from the time a call was scheduled
+ * to start, so they include any delay of the generator itself (corrected for coordinated omission). Service times
+ * only cover the simulated provider call.
+ */
+public class LoadResult {
+    private static final String CSV_HEADER = "scenario,durationSeconds,sent,completed,rejected,failed,unfinished,throughputPerSecond,rejectionRate,"
+            + "responseP50Millis,responseP90Millis,responseP99Millis,responseP999Millis,responseMaxMillis,serviceP50Millis,serviceP99Millis";
+
+    private final String scenario;
+    private final double durationSeconds;
+    private final long sent;
+    private final long completed;
+    private final long rejected;
+    private final long failed;
+    private final long unfinished;
+    private final double[] responseMillis;
+    private final double[] serviceMillis;
+
+    LoadResult(String scenario, double durationSeconds, long sent, long completed, long rejected, long failed, long unfinished,
+               double[] responseMillis, double[] serviceMillis) {
+        this.scenario = scenario;
+        this.durationSeconds = durationSeconds;
+        this.sent = sent;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.failed = failed;
+        this.unfinished = unfinished;
+        this.responseMillis = responseMillis;
+        this.serviceMillis = serviceMillis;
+    }
+
+    public static void writeCsv(Path file, List<LoadResult> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (LoadResult result : results) {
+            lines.add(result.toCsv());
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, lines);
+    }
+
+    public static void writeJson(Path file, List<LoadResult> results) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("  ").append(results.get(i).toJson()).append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("]\n");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, json.toString().getBytes());
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    public double getThroughput() {
+        return completed / durationSeconds;
+    }
+
+    public double getRejectionRate() {
+        return sent == 0 ? 0 : (double) rejected / sent;
+    }
+
+    /**
+     * Returns the response time percentiles p50, p90, p99, p999 and the maximum in milliseconds.
+     */
+    public double[] getResponseMillis() {
+        return responseMillis.clone();
+    }
+
+    /**
+     * Returns the service time percentiles p50 and p99 in milliseconds.
+     */
+    public double[] getServiceMillis() {
+        return serviceMillis.clone();
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%.3f,%d,%d,%d,%d,%d,%.1f,%.4f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                scenario.replace(',', ';'), durationSeconds, sent, completed, rejected, failed, unfinished, getThroughput(), getRejectionRate(),
+                responseMillis[0], responseMillis[1], responseMillis[2], responseMillis[3], responseMillis[4], serviceMillis[0], serviceMillis[1]);
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"scenario\": \"%s\", \"durationSeconds\": %.3f, \"sent\": %d, \"completed\": %d, \"rejected\": %d, "
+                        + "\"failed\": %d, \"unfinished\": %d, \"throughputPerSecond\": %.1f, \"rejectionRate\": %.4f, "
+                        + "\"responseMillis\": {\"p50\": %.3f, \"p90\": %.3f, \"p99\": %.3f, \"p999\": %.3f, \"max\": %.3f}, "
+                        + "\"serviceMillis\": {\"p50\": %.3f, \"p99\": %.3f}}",
+                scenario.replace("\\", "\\\\").replace("\"", "\\\""), durationSeconds, sent, completed, rejected, failed, unfinished, getThroughput(), getRejectionRate(),
+                responseMillis[0], responseMillis[1], responseMillis[2], responseMillis[3], responseMillis[4], serviceMillis[0], serviceMillis[1]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %d sent, %.1f/s, %.2f%% rejected, p50 %.1fms, p99 %.1fms, p999 %.1fms, max %.1fms",
+                scenario, sent, getThroughput(), getRejectionRate() * 100, responseMillis[0], responseMillis[2], responseMillis[3], responseMillis[4]);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.loadtest;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * The bulkhead a {@link LoadGenerator} sends its calls through. A call must not block the caller.
+ */
+@FunctionalInterface
+public interface LoadTarget {
+    CompletionStage<?> call(Supplier<?> work);
+
+    /**
+     * Runs every call on the executor, where it waits for a permit of the semaphore bulkhead like the callers of
+     * {@code SemaphoreBulkHead} do.
+     */
+    static LoadTarget of(Bulkhead bulkhead, Executor executor) {
+        return work -> CompletableFuture.supplyAsync(Bulkhead.decorateSupplier(bulkhead, work), executor);
+    }
+
+    static LoadTarget of(ThreadPoolBulkhead bulkhead) {
+        return work -> ThreadPoolBulkhead.decorateSupplier(bulkhead, work).get();
+    }
+}
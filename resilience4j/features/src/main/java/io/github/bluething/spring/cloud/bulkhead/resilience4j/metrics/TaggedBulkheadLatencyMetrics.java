@@ -0,0 +1,164 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.metrics;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.vavr.collection.Map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Percentile timers for the time a call spends waiting for a permit, waiting in the queue of a
+ * {@link ThreadPoolBulkhead} and executing. The gauges of {@code TaggedBulkheadMetrics} only show
+ * how full a bulkhead is, these timers show where the latency of a call comes from.
+ * Calls have to go through the {@code decorateSupplier} methods, which need a bound {@link MeterRegistry}.
+ * Built with {@link #ofBulkheadRegistry(BulkheadRegistry)} or
+ * {@link #ofThreadPoolBulkheadRegistry(ThreadPoolBulkheadRegistry)}, the timers follow the registry: they are
+ * registered for every bulkhead in it, and removed or re-registered when a bulkhead is removed or replaced.
+ */
+public class TaggedBulkheadLatencyMetrics implements MeterBinder {
+    public static final String DEFAULT_PERMIT_WAIT_METRIC_NAME = "resilience4j.bulkhead.permit.wait";
+    public static final String DEFAULT_QUEUE_RESIDENCE_METRIC_NAME = "resilience4j.bulkhead.queue.residence";
+    public static final String DEFAULT_EXECUTION_METRIC_NAME = "resilience4j.bulkhead.execution";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    // timers by bulkhead name, then by metric name and outcome
+    private final ConcurrentMap<String, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private volatile MeterRegistry meterRegistry;
+
+    private TaggedBulkheadLatencyMetrics(BulkheadRegistry bulkheadRegistry, ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.threadPoolBulkheadRegistry = threadPoolBulkheadRegistry;
+    }
+
+    public static TaggedBulkheadLatencyMetrics ofDefaults() {
+        return new TaggedBulkheadLatencyMetrics(null, null);
+    }
+
+    public static TaggedBulkheadLatencyMetrics ofBulkheadRegistry(BulkheadRegistry bulkheadRegistry) {
+        return new TaggedBulkheadLatencyMetrics(bulkheadRegistry, null);
+    }
+
+    public static TaggedBulkheadLatencyMetrics ofThreadPoolBulkheadRegistry(ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry) {
+        return new TaggedBulkheadLatencyMetrics(null, threadPoolBulkheadRegistry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        if (bulkheadRegistry != null) {
+            bulkheadRegistry.getAllBulkheads().forEach(this::addMetrics);
+            bulkheadRegistry.getEventPublisher()
+                    .onEntryAdded(event -> addMetrics(event.getAddedEntry()))
+                    .onEntryRemoved(event -> removeMetrics(event.getRemovedEntry().getName()))
+                    .onEntryReplaced(event -> {
+                        removeMetrics(event.getOldEntry().getName());
+                        addMetrics(event.getNewEntry());
+                    });
+        }
+        if (threadPoolBulkheadRegistry != null) {
+            threadPoolBulkheadRegistry.getAllBulkheads().forEach(this::addMetrics);
+            threadPoolBulkheadRegistry.getEventPublisher()
+                    .onEntryAdded(event -> addMetrics(event.getAddedEntry()))
+                    .onEntryRemoved(event -> removeMetrics(event.getRemovedEntry().getName()))
+                    .onEntryReplaced(event -> {
+                        removeMetrics(event.getOldEntry().getName());
+                        addMetrics(event.getNewEntry());
+                    });
+        }
+    }
+
+    private void addMetrics(Bulkhead bulkhead) {
+        timer(DEFAULT_PERMIT_WAIT_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), "permitted");
+        timer(DEFAULT_PERMIT_WAIT_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), "rejected");
+        timer(DEFAULT_EXECUTION_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), null);
+    }
+
+    private void addMetrics(ThreadPoolBulkhead bulkhead) {
+        timer(DEFAULT_QUEUE_RESIDENCE_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), null);
+        timer(DEFAULT_EXECUTION_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), null);
+    }
+
+    private void removeMetrics(String bulkheadName) {
+        ConcurrentMap<String, Timer> removed = timers.remove(bulkheadName);
+        if (removed != null) {
+            removed.values().forEach(meterRegistry::remove);
+        }
+    }
+
+    public <T> Supplier<T> decorateSupplier(Bulkhead bulkhead, Supplier<T> supplier) {
+        Timer permittedWaitTimer = timer(DEFAULT_PERMIT_WAIT_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), "permitted");
+        Timer rejectedWaitTimer = timer(DEFAULT_PERMIT_WAIT_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), "rejected");
+        Timer executionTimer = timer(DEFAULT_EXECUTION_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), null);
+        return () -> {
+            long waitStart = System.nanoTime();
+            try {
+                bulkhead.acquirePermission();
+            } catch (BulkheadFullException e) {
+                rejectedWaitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            long executionStart = System.nanoTime();
+            permittedWaitTimer.record(executionStart - waitStart, TimeUnit.NANOSECONDS);
+            try {
+                return supplier.get();
+            } finally {
+                bulkhead.onComplete();
+                executionTimer.record(System.nanoTime() - executionStart, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    public <T> Supplier<CompletionStage<T>> decorateSupplier(ThreadPoolBulkhead bulkhead, Supplier<T> supplier) {
+        Timer queueResidenceTimer = timer(DEFAULT_QUEUE_RESIDENCE_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), null);
+        Timer executionTimer = timer(DEFAULT_EXECUTION_METRIC_NAME, bulkhead.getName(), bulkhead.getTags(), null);
+        return () -> {
+            long submitted = System.nanoTime();
+            return bulkhead.executeSupplier(() -> {
+                long executionStart = System.nanoTime();
+                queueResidenceTimer.record(executionStart - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return supplier.get();
+                } finally {
+                    executionTimer.record(System.nanoTime() - executionStart, TimeUnit.NANOSECONDS);
+                }
+            });
+        };
+    }
+
+    private Timer timer(String metricName, String bulkheadName, Map<String, String> bulkheadTags, String outcome) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            throw new IllegalStateException("TaggedBulkheadLatencyMetrics is not bound to a MeterRegistry");
+        }
+        String key = metricName + '/' + outcome;
+        return timers.computeIfAbsent(bulkheadName, name -> new ConcurrentHashMap<>()).computeIfAbsent(key, k -> {
+            List<Tag> tags = new ArrayList<>();
+            tags.add(Tag.of("name", bulkheadName));
+            if (outcome != null) {
+                tags.add(Tag.of("outcome", outcome));
+            }
+            bulkheadTags.forEach((tagKey, tagValue) -> tags.add(Tag.of(tagKey, tagValue)));
+            return Timer.builder(metricName)
+                    .tags(tags)
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        });
+    }
+}
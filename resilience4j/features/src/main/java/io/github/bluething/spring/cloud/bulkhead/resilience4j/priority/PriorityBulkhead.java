@@ -0,0 +1,384 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.priority;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.BulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Splits one pool of permits into lanes, one per request class. Every lane has reserved permits and a
+ * weight, the total limit is the sum of the reservations. A lane may borrow permits another lane doesn't
+ * use as long as nobody is waiting. A released permit is handed to a waiting lane that is below its
+ * reservation first, ties and borrowing are decided by weighted fair queuing instead of arrival order.
+ * Each lane is exposed as a {@link Bulkhead}, so the usual decorators, events and metrics work per lane.
+ * <p>
+ * {@link #changeConfig(BulkheadConfig)} resizes the whole pool and scales the reservations with it, a lane's
+ * {@code changeConfig} sets that lane's reservation and grows or shrinks the pool by the difference. When the
+ * pool shrinks below the calls in use, released permits are kept until the calls in use fit again.
+ */
+public class PriorityBulkhead<P extends Enum<P>> {
+    private static final long STRIDE = 1L << 20;
+
+    private final String name;
+    private final boolean writableStackTraceEnabled;
+    private int totalLimit;
+    private final List<Lane> lanes;
+    private final EnumMap<P, Lane> laneByClass;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int totalInUse;
+    private long virtualTime;
+
+    private PriorityBulkhead(Builder<P> builder) {
+        this.name = builder.name;
+        this.writableStackTraceEnabled = builder.writableStackTraceEnabled;
+        this.laneByClass = new EnumMap<>(builder.requestClass);
+        int total = 0;
+        for (P requestClass : builder.requestClass.getEnumConstants()) {
+            Integer reserved = builder.reserved.get(requestClass);
+            if (reserved == null) {
+                throw new IllegalArgumentException("No lane configured for " + requestClass);
+            }
+            laneByClass.put(requestClass, new Lane(requestClass, reserved, builder.weights.get(requestClass), builder.maxWaitDuration));
+            total += reserved;
+        }
+        this.totalLimit = total;
+        this.lanes = new ArrayList<>(laneByClass.values());
+    }
+
+    public static <P extends Enum<P>> Builder<P> custom(String name, Class<P> requestClass) {
+        return new Builder<>(name, requestClass);
+    }
+
+    public Bulkhead lane(P requestClass) {
+        return laneByClass.get(requestClass);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the total limit to {@code maxConcurrentCalls} and every lane's reservation to its old share of the
+     * total, rounded so that the reservations add up to the new total. The {@code maxWaitDuration} applies to
+     * every lane.
+     */
+    public void changeConfig(BulkheadConfig newConfig) {
+        lock.lock();
+        try {
+            int newTotal = newConfig.getMaxConcurrentCalls();
+            int oldTotal = totalLimit;
+            int[] scaled = new int[lanes.size()];
+            long[] remainders = new long[lanes.size()];
+            int assigned = 0;
+            for (int i = 0; i < lanes.size(); i++) {
+                long share = oldTotal == 0 ? newTotal : (long) lanes.get(i).reserved * newTotal;
+                int divisor = oldTotal == 0 ? lanes.size() : oldTotal;
+                scaled[i] = (int) (share / divisor);
+                remainders[i] = share % divisor;
+                assigned += scaled[i];
+            }
+            // the permits lost to rounding go to the lanes with the largest remainders
+            for (; assigned < newTotal; assigned++) {
+                int largest = 0;
+                for (int i = 1; i < lanes.size(); i++) {
+                    if (remainders[i] > remainders[largest]) {
+                        largest = i;
+                    }
+                }
+                scaled[largest]++;
+                remainders[largest] = -1;
+            }
+            for (int i = 0; i < lanes.size(); i++) {
+                lanes.get(i).reconfigure(scaled[i], newConfig.getMaxWaitDuration());
+            }
+            resize(newTotal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void changeLaneConfig(Lane lane, BulkheadConfig newConfig) {
+        lock.lock();
+        try {
+            int newTotal = totalLimit - lane.reserved + newConfig.getMaxConcurrentCalls();
+            lane.reconfigure(newConfig.getMaxConcurrentCalls(), newConfig.getMaxWaitDuration());
+            resize(newTotal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resize(int newTotal) {
+        totalLimit = newTotal;
+        grantWaiters();
+    }
+
+    private boolean acquire(Lane lane, long timeoutNanos) {
+        lock.lock();
+        try {
+            if (lane.waiting == 0 && tryTake(lane)) {
+                return true;
+            }
+            if (timeoutNanos <= 0) {
+                return false;
+            }
+            if (lane.waiting == 0) {
+                lane.pass = Math.max(lane.pass, virtualTime);
+            }
+            lane.waiting++;
+            long remainingNanos = timeoutNanos;
+            try {
+                while (true) {
+                    if (lane.grants > 0) {
+                        lane.grants--;
+                        return true;
+                    }
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    remainingNanos = lane.permitGranted.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (lane.grants > 0) {
+                    lane.grants--;
+                    return true;
+                }
+                return false;
+            } finally {
+                lane.waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryTake(Lane lane) {
+        if (totalInUse >= totalLimit) {
+            return false;
+        }
+        if (lane.inUse >= lane.reserved && hasPendingWaiters()) {
+            return false;
+        }
+        lane.inUse++;
+        totalInUse++;
+        return true;
+    }
+
+    private void release(Lane lane) {
+        lock.lock();
+        try {
+            lane.inUse--;
+            totalInUse--;
+            grantWaiters();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void grantWaiters() {
+        Lane next;
+        while (totalInUse < totalLimit && (next = nextLane()) != null) {
+            next.inUse++;
+            totalInUse++;
+            next.grants++;
+            virtualTime = next.pass;
+            next.pass += STRIDE / next.weight;
+            next.permitGranted.signal();
+        }
+    }
+
+    private Lane nextLane() {
+        Lane underReservation = null;
+        Lane any = null;
+        for (Lane lane : lanes) {
+            if (lane.waiting - lane.grants <= 0) {
+                continue;
+            }
+            if (lane.inUse < lane.reserved && (underReservation == null || lane.pass < underReservation.pass)) {
+                underReservation = lane;
+            }
+            if (any == null || lane.pass < any.pass) {
+                any = lane;
+            }
+        }
+        return underReservation != null ? underReservation : any;
+    }
+
+    private boolean hasPendingWaiters() {
+        for (Lane lane : lanes) {
+            if (lane.waiting - lane.grants > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int availableFor(Lane lane) {
+        lock.lock();
+        try {
+            return Math.max(0, hasPendingWaiters() ? lane.reserved - lane.inUse : totalLimit - totalInUse);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class Lane implements Bulkhead {
+        private final String laneName;
+        private final int weight;
+        private int reserved;
+        private volatile BulkheadConfig config;
+        private final Map<String, String> tags;
+        private final Condition permitGranted = lock.newCondition();
+        private final BulkheadEventProcessor eventProcessor = new BulkheadEventProcessor();
+        private final Metrics metrics = new LaneMetrics();
+        private int inUse;
+        private int waiting;
+        private int grants;
+        private long pass;
+
+        Lane(P requestClass, int reserved, int weight, Duration maxWaitDuration) {
+            this.laneName = name + "-" + requestClass.name().toLowerCase();
+            this.weight = weight;
+            this.tags = HashMap.of("priority", requestClass.name());
+            reconfigure(reserved, maxWaitDuration);
+        }
+
+        private void reconfigure(int reserved, Duration maxWaitDuration) {
+            this.reserved = reserved;
+            this.config = BulkheadConfig.custom()
+                    .maxConcurrentCalls(reserved)
+                    .maxWaitDuration(maxWaitDuration)
+                    .writableStackTraceEnabled(writableStackTraceEnabled)
+                    .build();
+        }
+
+        @Override
+        public void changeConfig(BulkheadConfig newConfig) {
+            changeLaneConfig(this, newConfig);
+        }
+
+        @Override
+        public boolean tryAcquirePermission() {
+            boolean permitted = acquire(this, 0);
+            eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(laneName) : new BulkheadOnCallRejectedEvent(laneName));
+            return permitted;
+        }
+
+        @Override
+        public void acquirePermission() {
+            boolean permitted = acquire(this, config.getMaxWaitDuration().toNanos());
+            eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(laneName) : new BulkheadOnCallRejectedEvent(laneName));
+            if (!permitted) {
+                throw BulkheadFullException.createBulkheadFullException(this);
+            }
+        }
+
+        @Override
+        public void releasePermission() {
+            release(this);
+        }
+
+        @Override
+        public void onComplete() {
+            release(this);
+            eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(laneName));
+        }
+
+        @Override
+        public String getName() {
+            return laneName;
+        }
+
+        @Override
+        public BulkheadConfig getBulkheadConfig() {
+            return config;
+        }
+
+        @Override
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
+        @Override
+        public Map<String, String> getTags() {
+            return tags;
+        }
+
+        @Override
+        public EventPublisher getEventPublisher() {
+            return eventProcessor;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PriorityBulkhead lane '%s'", laneName);
+        }
+
+        private class LaneMetrics implements Metrics {
+            @Override
+            public int getAvailableConcurrentCalls() {
+                return availableFor(Lane.this);
+            }
+
+            @Override
+            public int getMaxAllowedConcurrentCalls() {
+                return config.getMaxConcurrentCalls();
+            }
+        }
+    }
+
+    public static class Builder<P extends Enum<P>> {
+        private final String name;
+        private final Class<P> requestClass;
+        private final EnumMap<P, Integer> reserved;
+        private final EnumMap<P, Integer> weights;
+        private Duration maxWaitDuration = Duration.ZERO;
+        private boolean writableStackTraceEnabled = true;
+
+        private Builder(String name, Class<P> requestClass) {
+            this.name = name;
+            this.requestClass = requestClass;
+            this.reserved = new EnumMap<>(requestClass);
+            this.weights = new EnumMap<>(requestClass);
+        }
+
+        public Builder<P> lane(P requestClass, int reservedCalls, int weight) {
+            if (reservedCalls < 0) {
+                throw new IllegalArgumentException("reservedCalls must not be negative");
+            }
+            if (weight < 1) {
+                throw new IllegalArgumentException("weight must be at least 1");
+            }
+            reserved.put(requestClass, reservedCalls);
+            weights.put(requestClass, weight);
+            return this;
+        }
+
+        public Builder<P> maxWaitDuration(Duration maxWaitDuration) {
+            this.maxWaitDuration = maxWaitDuration;
+            return this;
+        }
+
+        public Builder<P> writableStackTraceEnabled(boolean writableStackTraceEnabled) {
+            this.writableStackTraceEnabled = writableStackTraceEnabled;
+            return this;
+        }
+
+        public PriorityBulkhead<P> build() {
+            return new PriorityBulkhead<>(this);
+        }
+    }
+}
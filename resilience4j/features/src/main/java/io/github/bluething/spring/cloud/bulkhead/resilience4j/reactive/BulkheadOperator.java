@@ -0,0 +1,106 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guards a {@link Flow.Publisher} with a {@link Bulkhead}. The permit is taken when the publisher is
+ * subscribed to and given back when it completes, fails or is cancelled. A subscriber that gets no permit
+ * receives a {@link BulkheadFullException}. {@link Bulkhead#tryAcquirePermission()} waits up to
+ * {@code maxWaitDuration}, so use a bulkhead with a zero wait to keep the subscribing thread free.
+ */
+public final class BulkheadOperator {
+    private BulkheadOperator() {
+    }
+
+    public static <T> Flow.Publisher<T> decoratePublisher(Bulkhead bulkhead, Flow.Publisher<T> publisher) {
+        return subscriber -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                fail(subscriber, BulkheadFullException.createBulkheadFullException(bulkhead));
+                return;
+            }
+            BulkheadSubscriber<T> bulkheadSubscriber = new BulkheadSubscriber<>(bulkhead, subscriber);
+            try {
+                publisher.subscribe(bulkheadSubscriber);
+            } catch (RuntimeException e) {
+                // the publisher broke the spec, give the permit back unless it already signalled
+                if (bulkheadSubscriber.released.compareAndSet(false, true)) {
+                    bulkhead.releasePermission();
+                    if (bulkheadSubscriber.upstream == null) {
+                        fail(subscriber, e);
+                    } else {
+                        subscriber.onError(e);
+                    }
+                }
+            }
+        };
+    }
+
+    private static void fail(Flow.Subscriber<?> subscriber, Throwable throwable) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onError(throwable);
+    }
+
+    private static class BulkheadSubscriber<T> implements Flow.Subscriber<T>, Flow.Subscription {
+        private final Bulkhead bulkhead;
+        private final Flow.Subscriber<? super T> downstream;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private Flow.Subscription upstream;
+
+        BulkheadSubscriber(Bulkhead bulkhead, Flow.Subscriber<? super T> downstream) {
+            this.bulkhead = bulkhead;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.releasePermission();
+            }
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The non blocking counterpart of {@code Service}. A search is a cold {@link Flow.Publisher} that emits its
+ * flights from a timer on the given scheduler instead of sleeping, so no thread is held while it waits.
+ */
+public class NonBlockingService {
+    private final ScheduledExecutorService scheduler;
+    private final DateTimeFormatter dateTimeFormatter;
+
+    public NonBlockingService(ScheduledExecutorService scheduler, DateTimeFormatter dateTimeFormatter) {
+        this.scheduler = scheduler;
+        this.dateTimeFormatter = dateTimeFormatter;
+    }
+
+    public Flow.Publisher<List<Flight>> searchFlightsTakingOneSecond(SearchRequest searchRequest) {
+        return delayed(Duration.ofSeconds(1), () -> {
+            System.out.println("Searching for flights; "
+                    + "current time = " + LocalDateTime.now().format(dateTimeFormatter) +
+                    "; current thread = " + Thread.currentThread().getName());
+
+            List<Flight> flights = flights(searchRequest);
+
+            System.out.println("Flight search successful at " + LocalDateTime.now().format(dateTimeFormatter));
+
+            return flights;
+        });
+    }
+
+    public Flow.Publisher<List<Flight>> searchFlights(SearchRequest searchRequest, Duration latency) {
+        return delayed(latency, () -> flights(searchRequest));
+    }
+
+    /**
+     * Emits {@code resultCount} flights, one every {@code interval}, and only while the subscriber has
+     * outstanding demand.
+     */
+    public Flow.Publisher<Flight> searchFlightsStreaming(SearchRequest searchRequest, int resultCount, Duration interval) {
+        return subscriber -> subscriber.onSubscribe(new StreamingSubscription(subscriber, searchRequest, resultCount, interval));
+    }
+
+    private static List<Flight> flights(SearchRequest searchRequest) {
+        return Arrays.asList(new Flight("XY 765", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()),
+                new Flight("XY 746", searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()));
+    }
+
+    private <T> Flow.Publisher<T> delayed(Duration delay, Supplier<T> value) {
+        return subscriber -> subscriber.onSubscribe(new DelayedSubscription<>(subscriber, delay, value));
+    }
+
+    // the timer starts with the first request and emits exactly one value
+    private class DelayedSubscription<T> implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Duration delay;
+        private final Supplier<T> value;
+        private final AtomicBoolean requested = new AtomicBoolean();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timer;
+
+        DelayedSubscription(Flow.Subscriber<? super T> subscriber, Duration delay, Supplier<T> value) {
+            this.subscriber = subscriber;
+            this.delay = delay;
+            this.value = value;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (done.compareAndSet(false, true)) {
+                    subscriber.onError(new IllegalArgumentException("Requested " + n + " items, must be positive"));
+                }
+                return;
+            }
+            if (requested.compareAndSet(false, true)) {
+                timer = scheduler.schedule(this::emit, delay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void emit() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            T result;
+            try {
+                result = value.get();
+            } catch (Throwable t) {
+                subscriber.onError(t);
+                return;
+            }
+            subscriber.onNext(result);
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+            ScheduledFuture<?> scheduled = timer;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    // at most one tick is scheduled at a time, so flights are emitted in order from the scheduler thread
+    private class StreamingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Flight> subscriber;
+        private final SearchRequest searchRequest;
+        private final int resultCount;
+        private final Duration interval;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timer;
+        private int emitted;
+
+        StreamingSubscription(Flow.Subscriber<? super Flight> subscriber, SearchRequest searchRequest, int resultCount, Duration interval) {
+            this.subscriber = subscriber;
+            this.searchRequest = searchRequest;
+            this.resultCount = resultCount;
+            this.interval = interval;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelTimer();
+                if (done.compareAndSet(false, true)) {
+                    subscriber.onError(new IllegalArgumentException("Requested " + n + " items, must be positive"));
+                }
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            scheduleTick();
+        }
+
+        private void scheduleTick() {
+            if (!done.get() && demand.get() > 0 && scheduled.compareAndSet(false, true)) {
+                timer = scheduler.schedule(this::tick, interval.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void tick() {
+            if (done.get()) {
+                return;
+            }
+            if (emitted < resultCount) {
+                int number = emitted++;
+                demand.decrementAndGet();
+                subscriber.onNext(new Flight("XY " + (100 + number), searchRequest.getFlightDate(), searchRequest.getFrom(), searchRequest.getTo()));
+            }
+            if (emitted >= resultCount) {
+                if (done.compareAndSet(false, true)) {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+            scheduled.set(false);
+            scheduleTick();
+        }
+
+        @Override
+        public void cancel() {
+            done.set(true);
+            cancelTimer();
+        }
+
+        private void cancelTimer() {
+            ScheduledFuture<?> scheduledTick = timer;
+            if (scheduledTick != null) {
+                scheduledTick.cancel(false);
+            }
+        }
+    }
+}
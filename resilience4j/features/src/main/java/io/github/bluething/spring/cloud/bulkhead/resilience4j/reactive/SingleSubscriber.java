@@ -0,0 +1,49 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.reactive;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Subscribes to a publisher of one item and completes a {@link CompletableFuture} with it. Cancelling the
+ * future cancels the subscription.
+ */
+public class SingleSubscriber<T> implements Flow.Subscriber<T> {
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private T item;
+
+    public static <T> CompletableFuture<T> toFuture(Flow.Publisher<T> publisher) {
+        SingleSubscriber<T> subscriber = new SingleSubscriber<>();
+        publisher.subscribe(subscriber);
+        return subscriber.result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                subscription.cancel();
+            }
+        });
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(T item) {
+        this.item = item;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (item == null) {
+            result.completeExceptionally(new NoSuchElementException("Publisher completed without an item"));
+        } else {
+            result.complete(item);
+        }
+    }
+}
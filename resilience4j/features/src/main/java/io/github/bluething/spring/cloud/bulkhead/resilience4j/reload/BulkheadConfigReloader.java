@@ -0,0 +1,257 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.reload;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.codel.CoDelThreadPoolBulkhead;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.workstealing.WorkStealingThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.core.NamingThreadFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Applies bulkhead limits from a properties file to the live bulkheads of the registries, and again every time
+ * the file changes. Only bulkheads that already exist in a registry are changed.
+ * <pre>
+ * bulkhead.flightSearchService.maxConcurrentCalls=4
+ * bulkhead.flightSearchService.maxWaitDuration=PT2S
+ * threadPoolBulkhead.flightSearchService.coreThreadPoolSize=2
+ * threadPoolBulkhead.flightSearchService.maxThreadPoolSize=4
+ * </pre>
+ * A semaphore bulkhead gets a new config through {@link Bulkhead#changeConfig(BulkheadConfig)}. When it shrinks,
+ * the change waits until enough calls in flight have finished, so with fair call handling new calls queue
+ * behind it. The change runs on its own thread and changes to one bulkhead are applied in order.
+ * <p>
+ * {@link ThreadPoolBulkhead} has no {@code changeConfig}, so a thread pool bulkhead is replaced in its registry
+ * by one built from the new config, and the replaced one is closed in the background. Keep looking the bulkhead
+ * up in the registry, a reference to the replaced one rejects new calls. The default factory rebuilds a
+ * {@link WorkStealingThreadPoolBulkhead} as one and any other implementation as the stock thread pool bulkhead,
+ * except a {@link CoDelThreadPoolBulkhead}, which needs a factory that knows its controller settings.
+ */
+public class BulkheadConfigReloader implements AutoCloseable {
+    private static final String BULKHEAD_PREFIX = "bulkhead.";
+    private static final String THREAD_POOL_BULKHEAD_PREFIX = "threadPoolBulkhead.";
+
+    private final Path file;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private final Consumer<Throwable> errorHandler;
+    private final BiFunction<ThreadPoolBulkhead, ThreadPoolBulkheadConfig, ThreadPoolBulkhead> threadPoolBulkheadFactory;
+    private final ExecutorService changeExecutor = Executors.newCachedThreadPool(new NamingThreadFactory("bulkhead-config-change"));
+    private final Map<String, CompletableFuture<Void>> pendingChanges = new ConcurrentHashMap<>();
+    private volatile WatchService watchService;
+
+    public BulkheadConfigReloader(Path file, BulkheadRegistry bulkheadRegistry, ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry) {
+        this(file, bulkheadRegistry, threadPoolBulkheadRegistry, Throwable::printStackTrace);
+    }
+
+    public BulkheadConfigReloader(Path file, BulkheadRegistry bulkheadRegistry, ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry, Consumer<Throwable> errorHandler) {
+        this(file, bulkheadRegistry, threadPoolBulkheadRegistry, errorHandler, BulkheadConfigReloader::rebuild);
+    }
+
+    /**
+     * @param threadPoolBulkheadFactory builds the replacement of a thread pool bulkhead from the replaced one and
+     *                                  the new config
+     */
+    public BulkheadConfigReloader(Path file, BulkheadRegistry bulkheadRegistry, ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry, Consumer<Throwable> errorHandler,
+                                  BiFunction<ThreadPoolBulkhead, ThreadPoolBulkheadConfig, ThreadPoolBulkhead> threadPoolBulkheadFactory) {
+        this.file = file.toAbsolutePath();
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.threadPoolBulkheadRegistry = threadPoolBulkheadRegistry;
+        this.errorHandler = errorHandler;
+        this.threadPoolBulkheadFactory = threadPoolBulkheadFactory;
+    }
+
+    /**
+     * Applies the file once and starts watching it.
+     */
+    public void start() throws IOException {
+        reload().whenComplete((r, t) -> {
+            if (t != null) {
+                errorHandler.accept(t);
+            }
+        });
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread watcher = new Thread(this::watch, "bulkhead-config-reloader");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    reload().whenComplete((r, t) -> {
+                        if (t != null) {
+                            errorHandler.accept(t);
+                        }
+                    });
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * Reads the file and applies it.
+     *
+     * @return a stage that completes when every change, including the draining of shrunk bulkheads, is done
+     */
+    public CompletableFuture<Void> reload() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        List<CompletableFuture<Void>> changes = new ArrayList<>();
+        for (String name : names(properties, BULKHEAD_PREFIX)) {
+            bulkheadRegistry.find(name).ifPresent(bulkhead -> changes.add(apply(bulkhead, properties)));
+        }
+        for (String name : names(properties, THREAD_POOL_BULKHEAD_PREFIX)) {
+            threadPoolBulkheadRegistry.find(name).ifPresent(bulkhead -> changes.add(apply(bulkhead, properties)));
+        }
+        return CompletableFuture.allOf(changes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private CompletableFuture<Void> apply(Bulkhead bulkhead, Properties properties) {
+        String prefix = BULKHEAD_PREFIX + bulkhead.getName() + ".";
+        BulkheadConfig current = bulkhead.getBulkheadConfig();
+        int maxConcurrentCalls = intProperty(properties, prefix + "maxConcurrentCalls", current.getMaxConcurrentCalls());
+        Duration maxWaitDuration = durationProperty(properties, prefix + "maxWaitDuration", current.getMaxWaitDuration());
+        if (maxConcurrentCalls == current.getMaxConcurrentCalls() && maxWaitDuration.equals(current.getMaxWaitDuration())) {
+            return CompletableFuture.completedFuture(null);
+        }
+        BulkheadConfig newConfig = BulkheadConfig.from(current)
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build();
+        CompletableFuture<Void> change = pendingChanges.compute(prefix, (key, previous) -> (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                .handle((r, t) -> null)
+                .thenRunAsync(() -> bulkhead.changeConfig(newConfig), changeExecutor));
+        // only the latest change of a bulkhead is kept, and only until it is done
+        change.whenComplete((r, t) -> pendingChanges.remove(prefix, change));
+        return change;
+    }
+
+    private CompletableFuture<Void> apply(ThreadPoolBulkhead bulkhead, Properties properties) {
+        String prefix = THREAD_POOL_BULKHEAD_PREFIX + bulkhead.getName() + ".";
+        ThreadPoolBulkheadConfig current = bulkhead.getBulkheadConfig();
+        ThreadPoolBulkhead replacement;
+        try {
+            int coreThreadPoolSize = intProperty(properties, prefix + "coreThreadPoolSize", current.getCoreThreadPoolSize());
+            int maxThreadPoolSize = intProperty(properties, prefix + "maxThreadPoolSize", current.getMaxThreadPoolSize());
+            int queueCapacity = intProperty(properties, prefix + "queueCapacity", current.getQueueCapacity());
+            if (coreThreadPoolSize == current.getCoreThreadPoolSize() && maxThreadPoolSize == current.getMaxThreadPoolSize()
+                    && queueCapacity == current.getQueueCapacity()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (coreThreadPoolSize < 1 || maxThreadPoolSize < coreThreadPoolSize) {
+                throw new IllegalArgumentException("Thread pool bulkhead '" + bulkhead.getName() + "' needs 1 <= coreThreadPoolSize <= maxThreadPoolSize");
+            }
+            ThreadPoolBulkheadConfig newConfig = ThreadPoolBulkheadConfig.from(current)
+                    .maxThreadPoolSize(maxThreadPoolSize)
+                    .coreThreadPoolSize(coreThreadPoolSize)
+                    .queueCapacity(queueCapacity)
+                    .build();
+            replacement = threadPoolBulkheadFactory.apply(bulkhead, newConfig);
+        } catch (RuntimeException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        threadPoolBulkheadRegistry.replace(bulkhead.getName(), replacement);
+        // closing waits for the queued tasks of the replaced bulkhead, the new one is already in use
+        changeExecutor.execute(() -> {
+            try {
+                bulkhead.close();
+            } catch (Exception e) {
+                errorHandler.accept(new IllegalStateException("Could not close replaced bulkhead " + bulkhead.getName(), e));
+            }
+        });
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static List<String> names(Properties properties, String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            int end = key.lastIndexOf('.');
+            if (key.startsWith(prefix) && end > prefix.length()) {
+                String name = key.substring(prefix.length(), end);
+                if (!names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number: " + value, e);
+        }
+    }
+
+    private static Duration durationProperty(Properties properties, String key, Duration defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Duration.parse(value.trim());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        changeExecutor.shutdown();
+    }
+
+    private static ThreadPoolBulkhead rebuild(ThreadPoolBulkhead bulkhead, ThreadPoolBulkheadConfig config) {
+        if (bulkhead instanceof WorkStealingThreadPoolBulkhead) {
+            return new WorkStealingThreadPoolBulkhead(bulkhead.getName(), config, bulkhead.getTags());
+        }
+        if (bulkhead instanceof CoDelThreadPoolBulkhead) {
+            throw new IllegalArgumentException("CoDel thread pool bulkhead '" + bulkhead.getName() + "' needs a thread pool bulkhead factory to be rebuilt");
+        }
+        return ThreadPoolBulkhead.of(bulkhead.getName(), config, bulkhead.getTags());
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.scatter;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The merged flights of a {@link ScatterGatherSearch} and what happened to every provider.
+ */
+public class ScatterGatherResult {
+    private final List<Flight> flights;
+    private final List<String> completedProviders;
+    private final List<String> skippedProviders;
+    private final Map<String, Throwable> failedProviders;
+    private final List<String> timedOutProviders;
+
+    ScatterGatherResult(List<Flight> flights, List<String> completedProviders, List<String> skippedProviders,
+                        Map<String, Throwable> failedProviders, List<String> timedOutProviders) {
+        this.flights = flights;
+        this.completedProviders = completedProviders;
+        this.skippedProviders = skippedProviders;
+        this.failedProviders = failedProviders;
+        this.timedOutProviders = timedOutProviders;
+    }
+
+    /**
+     * Returns the flights without duplicates, in the order they arrived.
+     */
+    public List<Flight> getFlights() {
+        return flights;
+    }
+
+    public List<String> getCompletedProviders() {
+        return completedProviders;
+    }
+
+    /**
+     * Returns the providers whose bulkhead was full.
+     */
+    public List<String> getSkippedProviders() {
+        return skippedProviders;
+    }
+
+    public Map<String, Throwable> getFailedProviders() {
+        return failedProviders;
+    }
+
+    public List<String> getTimedOutProviders() {
+        return timedOutProviders;
+    }
+
+    public boolean isPartial() {
+        return !skippedProviders.isEmpty() || !failedProviders.isEmpty() || !timedOutProviders.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterGatherResult{" +
+                "flights=" + flights.size() +
+                ", completed=" + completedProviders +
+                ", skipped=" + skippedProviders +
+                ", failed=" + failedProviders.keySet() +
+                ", timedOut=" + timedOutProviders +
+                '}';
+    }
+}
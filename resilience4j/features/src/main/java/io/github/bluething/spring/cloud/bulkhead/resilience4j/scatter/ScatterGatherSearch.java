@@ -0,0 +1,152 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.scatter;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sends one {@link SearchRequest} to several flight providers, each behind its own {@link ThreadPoolBulkhead}
+ * named after the provider, and merges their flights without duplicates as they arrive. A provider whose
+ * bulkhead is full is skipped at once, a provider that returns {@code null} found no flights. The result is
+ * complete when every provider has answered, or partial when {@code timeout} is over first.
+ */
+public class ScatterGatherSearch {
+    private final List<Provider> providers;
+    private final Duration timeout;
+
+    private ScatterGatherSearch(Builder builder) {
+        this.providers = new ArrayList<>(builder.providers);
+        this.timeout = builder.timeout;
+    }
+
+    public static Builder custom() {
+        return new Builder();
+    }
+
+    public CompletableFuture<ScatterGatherResult> search(SearchRequest searchRequest) {
+        Gather gather = new Gather();
+        for (Provider provider : providers) {
+            try {
+                provider.bulkhead.submit(() -> provider.search.apply(searchRequest))
+                        .whenComplete((flights, throwable) -> gather.completed(provider.name, flights, throwable));
+            } catch (BulkheadFullException e) {
+                gather.skipped(provider.name);
+            }
+        }
+        CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(gather::timedOut);
+        return gather.result;
+    }
+
+    private static class Provider {
+        private final String name;
+        private final ThreadPoolBulkhead bulkhead;
+        private final Function<SearchRequest, List<Flight>> search;
+
+        Provider(ThreadPoolBulkhead bulkhead, Function<SearchRequest, List<Flight>> search) {
+            this.name = bulkhead.getName();
+            this.bulkhead = bulkhead;
+            this.search = search;
+        }
+    }
+
+    private class Gather {
+        private final CompletableFuture<ScatterGatherResult> result = new CompletableFuture<>();
+        private final Set<Flight> flights = new LinkedHashSet<>();
+        private final List<String> completed = new ArrayList<>();
+        private final List<String> skipped = new ArrayList<>();
+        private final Map<String, Throwable> failed = new LinkedHashMap<>();
+        private int answered;
+
+        synchronized void completed(String provider, List<Flight> providerFlights, Throwable throwable) {
+            if (result.isDone()) {
+                return;
+            }
+            if (throwable != null) {
+                failed.put(provider, throwable);
+            } else {
+                if (providerFlights != null) {
+                    flights.addAll(providerFlights);
+                }
+                completed.add(provider);
+            }
+            answered();
+        }
+
+        synchronized void skipped(String provider) {
+            skipped.add(provider);
+            answered();
+        }
+
+        synchronized void timedOut() {
+            if (result.isDone()) {
+                return;
+            }
+            List<String> timedOut = new ArrayList<>();
+            for (Provider provider : providers) {
+                if (!completed.contains(provider.name) && !skipped.contains(provider.name) && !failed.containsKey(provider.name)) {
+                    timedOut.add(provider.name);
+                }
+            }
+            complete(timedOut);
+        }
+
+        private void answered() {
+            answered++;
+            if (answered == providers.size()) {
+                complete(Collections.emptyList());
+            }
+        }
+
+        private void complete(List<String> timedOut) {
+            result.complete(new ScatterGatherResult(new ArrayList<>(flights), new ArrayList<>(completed), new ArrayList<>(skipped),
+                    new LinkedHashMap<>(failed), timedOut));
+        }
+    }
+
+    public static class Builder {
+        private final List<Provider> providers = new ArrayList<>();
+        private Duration timeout = Duration.ofSeconds(2);
+
+        private Builder() {
+        }
+
+        /**
+         * @throws IllegalArgumentException if a provider with the bulkhead's name was already added, the result
+         *                                  reports providers by name
+         */
+        public Builder provider(ThreadPoolBulkhead bulkhead, Function<SearchRequest, List<Flight>> search) {
+            for (Provider provider : providers) {
+                if (provider.name.equals(bulkhead.getName())) {
+                    throw new IllegalArgumentException("Provider '" + bulkhead.getName() + "' was already added");
+                }
+            }
+            providers.add(new Provider(bulkhead, search));
+            return this;
+        }
+
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public ScatterGatherSearch build() {
+            if (providers.isEmpty()) {
+                throw new IllegalArgumentException("At least one provider is needed");
+            }
+            return new ScatterGatherSearch(this);
+        }
+    }
+}
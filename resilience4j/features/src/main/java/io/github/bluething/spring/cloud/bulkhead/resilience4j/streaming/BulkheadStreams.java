@@ -0,0 +1,87 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.streaming;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Ties a {@link Bulkhead} permit to the lifecycle of a lazily produced {@link Stream} instead of to a single
+ * call. The permit is taken when the stream is opened and held while it is consumed. It is given back with
+ * {@link Bulkhead#onComplete()} when the stream is exhausted or fails, and with
+ * {@link Bulkhead#releasePermission()} when it is closed early, so consume it in a try-with-resources block.
+ */
+public final class BulkheadStreams {
+    private BulkheadStreams() {
+    }
+
+    public static <T> Supplier<Stream<T>> decorateStream(Bulkhead bulkhead, Supplier<Stream<T>> streamSupplier) {
+        return () -> {
+            bulkhead.acquirePermission();
+            Stream<T> upstream;
+            try {
+                upstream = streamSupplier.get();
+            } catch (RuntimeException e) {
+                bulkhead.onComplete();
+                throw e;
+            }
+            PermitSpliterator<T> spliterator = new PermitSpliterator<>(bulkhead, upstream.iterator());
+            return StreamSupport.stream(spliterator, false)
+                    .onClose(() -> {
+                        try {
+                            upstream.close();
+                        } finally {
+                            spliterator.close();
+                        }
+                    });
+        };
+    }
+
+    private static class PermitSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Bulkhead bulkhead;
+        private final Iterator<T> iterator;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitSpliterator(Bulkhead bulkhead, Iterator<T> iterator) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.bulkhead = bulkhead;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (released.get()) {
+                return false;
+            }
+            try {
+                if (iterator.hasNext()) {
+                    action.accept(iterator.next());
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                complete();
+                throw e;
+            }
+            complete();
+            return false;
+        }
+
+        private void complete() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+        }
+
+        void close() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.releasePermission();
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.striped;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.BulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A semaphore {@link Bulkhead} whose permits are spread over one cell per core, in the spirit of
+ * {@link java.util.concurrent.atomic.LongAdder}. A thread takes and returns permits at its home cell, so
+ * threads on different cells don't fight over the same cache line. When the home cell is empty the thread
+ * steals half of the first non empty cell it finds, one permit for the call and the rest for its home cell.
+ * <p>
+ * Permits only move between cells and callers, so no more than {@code maxConcurrentCalls} calls ever run at
+ * once. Waiting callers are not served in order, {@code fairCallHandlingEnabled} is ignored.
+ */
+public class StripedSemaphoreBulkhead implements Bulkhead {
+    // 32 ints keep every cell on its own pair of cache lines
+    private static final int STRIDE = 32;
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final int mask;
+    private final AtomicIntegerArray cells;
+    // permits given back by changeConfig that are still in use
+    private final AtomicInteger debt = new AtomicInteger();
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final StripedSemaphoreBulkheadMetrics metrics = new StripedSemaphoreBulkheadMetrics();
+    private final BulkheadEventProcessor eventProcessor = new BulkheadEventProcessor();
+    private volatile BulkheadConfig config;
+
+    public StripedSemaphoreBulkhead(String name, BulkheadConfig config) {
+        this(name, config, Runtime.getRuntime().availableProcessors(), HashMap.empty());
+    }
+
+    public StripedSemaphoreBulkhead(String name, BulkheadConfig config, int cellCount, Map<String, String> tags) {
+        if (cellCount < 1) {
+            throw new IllegalArgumentException("cellCount must be at least 1");
+        }
+        this.name = name;
+        this.config = config;
+        this.tags = tags;
+        int size = Integer.highestOneBit(Math.max(1, Math.min(cellCount, config.getMaxConcurrentCalls())));
+        this.mask = size - 1;
+        this.cells = new AtomicIntegerArray(size * STRIDE);
+        for (int i = 0; i < size; i++) {
+            cells.set(i * STRIDE, config.getMaxConcurrentCalls() / size + (i < config.getMaxConcurrentCalls() % size ? 1 : 0));
+        }
+    }
+
+    /**
+     * Replaces the entry {@code name} of the registry with a striped bulkhead built from the entry's config and tags.
+     */
+    public static StripedSemaphoreBulkhead register(BulkheadRegistry bulkheadRegistry, String name) {
+        Bulkhead template = bulkheadRegistry.bulkhead(name);
+        if (template instanceof StripedSemaphoreBulkhead) {
+            return (StripedSemaphoreBulkhead) template;
+        }
+        StripedSemaphoreBulkhead bulkhead = new StripedSemaphoreBulkhead(name, template.getBulkheadConfig(),
+                Runtime.getRuntime().availableProcessors(), template.getTags());
+        bulkheadRegistry.replace(name, bulkhead);
+        return bulkhead;
+    }
+
+    /**
+     * Growing hands the new permits out at once. Shrinking takes free permits out of the cells and turns the
+     * rest into a debt that is paid back by the calls still running, so it doesn't block like the stock bulkhead.
+     */
+    @Override
+    public synchronized void changeConfig(BulkheadConfig newConfig) {
+        int delta = newConfig.getMaxConcurrentCalls() - config.getMaxConcurrentCalls();
+        config = newConfig;
+        if (delta > 0) {
+            while (delta > 0 && payDebt()) {
+                delta--;
+            }
+            for (int i = 0; delta > 0; i = (i + 1) & mask, delta--) {
+                cells.incrementAndGet(i * STRIDE);
+            }
+            signalWaiter();
+        } else if (delta < 0) {
+            debt.addAndGet(-delta);
+            for (int i = 0; i <= mask && debt.get() > 0; i++) {
+                while (take(i * STRIDE)) {
+                    if (!payDebt()) {
+                        cells.incrementAndGet(i * STRIDE);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAcquirePermission() {
+        boolean permitted = acquire();
+        eventProcessor.publish(() -> permitted ? new BulkheadOnCallPermittedEvent(name) : new BulkheadOnCallRejectedEvent(name));
+        return permitted;
+    }
+
+    @Override
+    public void acquirePermission() {
+        if (!tryAcquirePermission()) {
+            throw BulkheadFullException.createBulkheadFullException(this);
+        }
+    }
+
+    private boolean acquire() {
+        int home = home();
+        if (tryAcquire(home)) {
+            return true;
+        }
+        long waitNanos = config.getMaxWaitDuration().toNanos();
+        if (waitNanos <= 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + waitNanos;
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            while (true) {
+                // a release after we joined the queue either shows up in this scan or unparks us
+                if (tryAcquire(home)) {
+                    return true;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0 || current.isInterrupted()) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remainingNanos);
+            }
+        } finally {
+            waiters.remove(current);
+            signalWaiter();
+        }
+    }
+
+    private boolean tryAcquire(int home) {
+        while (take(home * STRIDE)) {
+            if (debt.get() == 0 || !payDebt()) {
+                return true;
+            }
+        }
+        return steal(home);
+    }
+
+    private boolean steal(int home) {
+        for (int i = 1; i <= mask; i++) {
+            int victim = ((home + i) & mask) * STRIDE;
+            int available;
+            while ((available = cells.get(victim)) > 0) {
+                int stolen = (available + 1) / 2;
+                if (cells.compareAndSet(victim, available, available - stolen)) {
+                    if (debt.get() > 0) {
+                        while (stolen > 0 && payDebt()) {
+                            stolen--;
+                        }
+                        if (stolen == 0) {
+                            break;
+                        }
+                    }
+                    if (stolen > 1) {
+                        cells.addAndGet(home * STRIDE, stolen - 1);
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean take(int index) {
+        int available;
+        while ((available = cells.get(index)) > 0) {
+            if (cells.compareAndSet(index, available, available - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean payDebt() {
+        int owed;
+        while ((owed = debt.get()) > 0) {
+            if (debt.compareAndSet(owed, owed - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+
+    private void signalWaiter() {
+        Thread waiter = waiters.peek();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public void releasePermission() {
+        if (debt.get() == 0 || !payDebt()) {
+            cells.incrementAndGet(home() * STRIDE);
+            if (!waiters.isEmpty()) {
+                signalWaiter();
+            }
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        releasePermission();
+        eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(name));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StripedSemaphoreBulkhead '%s'", name);
+    }
+
+    private class StripedSemaphoreBulkheadMetrics implements Metrics {
+        // a sum over the cells, not a snapshot, while calls are running
+        @Override
+        public int getAvailableConcurrentCalls() {
+            int available = 0;
+            for (int i = 0; i <= mask; i++) {
+                available += cells.get(i * STRIDE);
+            }
+            return Math.max(0, available - debt.get());
+        }
+
+        @Override
+        public int getMaxAllowedConcurrentCalls() {
+            return config.getMaxConcurrentCalls();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.tenant;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * Gives every tenant key, a customer or a route, its own {@link Bulkhead} built from one template config, with
+ * bounded memory. A tenant bulkhead is created on the first call and is evicted once it has been idle for
+ * {@code idleTimeout}, or as the least recently used one when {@code maxTenants} is reached. A bulkhead with
+ * calls in flight, or handed out less than {@code minEvictableIdleTime} ago, is never evicted, because its
+ * caller may not have acquired a permit yet. When no tenant bulkhead can be evicted a new key has to share the
+ * overflow bulkhead, until a slot frees up.
+ * <p>
+ * {@link #getBulkheadRegistry()} holds the overflow bulkhead and at most {@code maxTaggedTenants} tenant
+ * bulkheads, so binding {@code TaggedBulkheadMetrics} to it keeps the meter tags bounded. The other tenant
+ * bulkheads work the same but have no meters. Meters are keyed by bulkhead name, so when two keys map to the
+ * same {@code keyName} only the first one gets a tagged bulkhead.
+ */
+public class TenantBulkheadRegistry<K> {
+    private final String name;
+    private final BulkheadConfig config;
+    private final Function<K, String> keyName;
+    private final int maxTenants;
+    private final long idleTimeoutNanos;
+    private final long minEvictableIdleNanos;
+    private final int maxTaggedTenants;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Bulkhead overflowBulkhead;
+    // access ordered, the eldest tenant is the least recently used one
+    private final LinkedHashMap<K, Tenant> tenants = new LinkedHashMap<>(16, 0.75f, true);
+    private int taggedTenants;
+
+    private TenantBulkheadRegistry(Builder<K> builder) {
+        this.name = builder.name;
+        this.config = builder.config;
+        this.keyName = builder.keyName;
+        this.maxTenants = builder.maxTenants;
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.minEvictableIdleNanos = builder.minEvictableIdleTime.toNanos();
+        this.maxTaggedTenants = builder.maxTaggedTenants;
+        this.bulkheadRegistry = BulkheadRegistry.of(config);
+        this.overflowBulkhead = bulkheadRegistry.bulkhead(name + "-overflow", builder.overflowConfig);
+    }
+
+    public static <K> Builder<K> custom(String name, BulkheadConfig config) {
+        return new Builder<>(name, config);
+    }
+
+    /**
+     * Returns the bulkhead of {@code key}, or the overflow bulkhead when no tenant slot is free.
+     */
+    public synchronized Bulkhead bulkhead(K key) {
+        long now = System.nanoTime();
+        Tenant tenant = tenants.get(key);
+        if (tenant != null) {
+            tenant.lastUsed = now;
+            return tenant.bulkhead;
+        }
+        evictIdle(now);
+        if (tenants.size() >= maxTenants && !evictLeastRecentlyUsed(now)) {
+            return overflowBulkhead;
+        }
+        tenant = createTenant(name + "-" + keyName.apply(key), now);
+        tenants.put(key, tenant);
+        return tenant.bulkhead;
+    }
+
+    private Tenant createTenant(String bulkheadName, long now) {
+        if (taggedTenants < maxTaggedTenants && !bulkheadRegistry.find(bulkheadName).isPresent()) {
+            taggedTenants++;
+            return new Tenant(bulkheadRegistry.bulkhead(bulkheadName), true, now);
+        }
+        return new Tenant(Bulkhead.of(bulkheadName, config), false, now);
+    }
+
+    private void evictIdle(long now) {
+        Iterator<Tenant> iterator = tenants.values().iterator();
+        while (iterator.hasNext()) {
+            Tenant tenant = iterator.next();
+            if (now - tenant.lastUsed < Math.max(idleTimeoutNanos, minEvictableIdleNanos)) {
+                return;
+            }
+            if (tenant.isIdle()) {
+                iterator.remove();
+                evicted(tenant);
+            }
+        }
+    }
+
+    private boolean evictLeastRecentlyUsed(long now) {
+        Iterator<Tenant> iterator = tenants.values().iterator();
+        while (iterator.hasNext()) {
+            Tenant tenant = iterator.next();
+            if (now - tenant.lastUsed < minEvictableIdleNanos) {
+                return false;
+            }
+            if (tenant.isIdle()) {
+                iterator.remove();
+                evicted(tenant);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evicted(Tenant tenant) {
+        if (tenant.tagged) {
+            bulkheadRegistry.remove(tenant.bulkhead.getName());
+            taggedTenants--;
+        }
+    }
+
+    public synchronized int size() {
+        return tenants.size();
+    }
+
+    public synchronized boolean contains(K key) {
+        return tenants.containsKey(key);
+    }
+
+    public Bulkhead getOverflowBulkhead() {
+        return overflowBulkhead;
+    }
+
+    /**
+     * Returns the registry to bind {@code TaggedBulkheadMetrics} to.
+     */
+    public BulkheadRegistry getBulkheadRegistry() {
+        return bulkheadRegistry;
+    }
+
+    private static class Tenant {
+        private final Bulkhead bulkhead;
+        private final boolean tagged;
+        private long lastUsed;
+
+        Tenant(Bulkhead bulkhead, boolean tagged, long lastUsed) {
+            this.bulkhead = bulkhead;
+            this.tagged = tagged;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean isIdle() {
+            Bulkhead.Metrics metrics = bulkhead.getMetrics();
+            return metrics.getAvailableConcurrentCalls() == metrics.getMaxAllowedConcurrentCalls();
+        }
+    }
+
+    public static class Builder<K> {
+        private final String name;
+        private final BulkheadConfig config;
+        private Function<K, String> keyName = String::valueOf;
+        private BulkheadConfig overflowConfig;
+        private int maxTenants = 100;
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private Duration minEvictableIdleTime = Duration.ofSeconds(1);
+        private int maxTaggedTenants = 20;
+
+        private Builder(String name, BulkheadConfig config) {
+            this.name = name;
+            this.config = config;
+            this.overflowConfig = config;
+        }
+
+        /**
+         * Sets how a key shows up in the bulkhead name, {@code String.valueOf} by default. Keys with the same name
+         * still get their own bulkheads, but only the first of them is tagged.
+         */
+        public Builder<K> keyName(Function<K, String> keyName) {
+            this.keyName = keyName;
+            return this;
+        }
+
+        public Builder<K> overflowConfig(BulkheadConfig overflowConfig) {
+            this.overflowConfig = overflowConfig;
+            return this;
+        }
+
+        public Builder<K> maxTenants(int maxTenants) {
+            if (maxTenants < 1) {
+                throw new IllegalArgumentException("maxTenants must be at least 1");
+            }
+            this.maxTenants = maxTenants;
+            return this;
+        }
+
+        public Builder<K> idleTimeout(Duration idleTimeout) {
+            if (idleTimeout.isNegative()) {
+                throw new IllegalArgumentException("idleTimeout must not be negative");
+            }
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder<K> minEvictableIdleTime(Duration minEvictableIdleTime) {
+            if (minEvictableIdleTime.isNegative()) {
+                throw new IllegalArgumentException("minEvictableIdleTime must not be negative");
+            }
+            this.minEvictableIdleTime = minEvictableIdleTime;
+            return this;
+        }
+
+        public Builder<K> maxTaggedTenants(int maxTaggedTenants) {
+            if (maxTaggedTenants < 0) {
+                throw new IllegalArgumentException("maxTaggedTenants must not be negative");
+            }
+            this.maxTaggedTenants = maxTaggedTenants;
+            return this;
+        }
+
+        public TenantBulkheadRegistry<K> build() {
+            return new TenantBulkheadRegistry<>(this);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.virtual;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.event.BulkheadEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.core.NamingThreadFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs every call on its own thread and limits concurrency with a semaphore {@link Bulkhead}.
+ * The permit is acquired on the new thread, so waiting for it never blocks the caller, and the
+ * semaphore bulkhead publishes the usual permitted, rejected and finished events.
+ * Virtual threads are used when the JVM provides them. Otherwise calls run on a pool of at most
+ * {@code maxConcurrentCalls + maxWaitingCalls} platform threads, so no more than {@code maxWaitingCalls}
+ * threads wait for a permit, and a call that finds every thread busy fails at once with a
+ * {@link BulkheadFullException} and a rejected event. The pool is sized when it is created, a later
+ * {@code changeConfig} of the bulkhead does not resize it.
+ */
+public class VirtualThreadBulkhead implements AutoCloseable {
+    private final Bulkhead bulkhead;
+    private final ExecutorService executorService;
+
+    public VirtualThreadBulkhead(Bulkhead bulkhead, ExecutorService executorService) {
+        this.bulkhead = bulkhead;
+        this.executorService = executorService;
+    }
+
+    public static VirtualThreadBulkhead of(Bulkhead bulkhead) {
+        return of(bulkhead, bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+    }
+
+    public static VirtualThreadBulkhead of(Bulkhead bulkhead, int maxWaitingCalls) {
+        if (maxWaitingCalls < 0) {
+            throw new IllegalArgumentException("maxWaitingCalls must be greater than or equal to 0");
+        }
+        int maxThreads = bulkhead.getBulkheadConfig().getMaxConcurrentCalls() + maxWaitingCalls;
+        return new VirtualThreadBulkhead(bulkhead, newThreadPerTaskExecutor(bulkhead.getName(), maxThreads));
+    }
+
+    public static <T> Supplier<CompletionStage<T>> decorateSupplier(VirtualThreadBulkhead bulkhead, Supplier<T> supplier) {
+        return () -> bulkhead.submit(supplier::get);
+    }
+
+    public static <T> Supplier<CompletionStage<T>> decorateCallable(VirtualThreadBulkhead bulkhead, Callable<T> callable) {
+        return () -> bulkhead.submit(callable);
+    }
+
+    public <T> CompletionStage<T> submit(Callable<T> callable) {
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        try {
+            executorService.execute(() -> {
+                try {
+                    bulkhead.acquirePermission();
+                } catch (Throwable t) {
+                    promise.completeExceptionally(t);
+                    return;
+                }
+                try {
+                    promise.complete(callable.call());
+                } catch (Throwable t) {
+                    promise.completeExceptionally(t);
+                } finally {
+                    bulkhead.onComplete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (executorService.isShutdown()) {
+                promise.completeExceptionally(e);
+            } else {
+                publishRejected();
+                promise.completeExceptionally(BulkheadFullException.createBulkheadFullException(bulkhead));
+            }
+        }
+        return promise;
+    }
+
+    // the call never reached the semaphore, so the rejection is published through the bulkhead's own publisher,
+    // which for the stock semaphore bulkhead and BulkheadEventProcessor also consumes events
+    @SuppressWarnings("unchecked")
+    private void publishRejected() {
+        Bulkhead.EventPublisher eventPublisher = bulkhead.getEventPublisher();
+        if (eventPublisher instanceof EventConsumer) {
+            ((EventConsumer<BulkheadEvent>) eventPublisher).consumeEvent(new BulkheadOnCallRejectedEvent(bulkhead.getName()));
+        }
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(String name, int maxPlatformThreads) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return new ThreadPoolExecutor(0, Math.max(1, maxPlatformThreads), 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), new NamingThreadFactory(name));
+        }
+    }
+}
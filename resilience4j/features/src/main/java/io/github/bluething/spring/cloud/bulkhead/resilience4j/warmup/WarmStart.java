@@ -0,0 +1,152 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.warmup;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Warms a {@link ThreadPoolBulkhead} up before it takes real traffic. A thread pool bulkhead starts its threads
+ * on the first calls, and the decorated code runs interpreted until the JIT compiles it, so the first calls after
+ * a deploy are much slower than the rest. {@link #start(Supplier)} first starts the core threads, with one task
+ * per core thread that waits until all of them run, then sends {@code warmupCalls} synthetic calls through the
+ * decorated supplier, {@code maxThreadPoolSize} at a time. The bulkhead is ready when the calls are done or
+ * {@code maxWarmupDuration} is over, whichever comes first. Failed warm-up calls don't keep it from being ready.
+ */
+public class WarmStart {
+    private final ThreadPoolBulkhead bulkhead;
+    private final int warmupCalls;
+    private final Duration maxWarmupDuration;
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final AtomicInteger completedCalls = new AtomicInteger();
+    private final AtomicInteger failedCalls = new AtomicInteger();
+
+    private WarmStart(Builder builder) {
+        this.bulkhead = builder.bulkhead;
+        this.warmupCalls = builder.warmupCalls;
+        this.maxWarmupDuration = builder.maxWarmupDuration;
+    }
+
+    public static Builder custom(ThreadPoolBulkhead bulkhead) {
+        return new Builder(bulkhead);
+    }
+
+    /**
+     * Starts the warm-up in the background and returns the readiness signal. {@code warmupSupplier} should be
+     * decorated the same way as the real calls, with a synthetic request.
+     */
+    public <T> CompletableFuture<Void> start(Supplier<? extends CompletionStage<T>> warmupSupplier) {
+        long deadline = System.nanoTime() + maxWarmupDuration.toNanos();
+        // a hung warm-up call must not hold the signal back, no new batch starts after the deadline
+        ready.completeOnTimeout(null, maxWarmupDuration.toNanos(), TimeUnit.NANOSECONDS);
+        prestartCoreThreads(deadline)
+                .thenCompose(ignored -> warmup(warmupSupplier, warmupCalls, deadline))
+                .whenComplete((ignored, throwable) -> ready.complete(null));
+        return ready;
+    }
+
+    private CompletableFuture<Void> prestartCoreThreads(long deadline) {
+        int coreThreads = bulkhead.getBulkheadConfig().getCoreThreadPoolSize();
+        CountDownLatch started = new CountDownLatch(coreThreads);
+        Runnable coreThreadTask = () -> {
+            started.countDown();
+            try {
+                started.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < coreThreads; i++) {
+                tasks.add(bulkhead.submit(coreThreadTask).toCompletableFuture());
+            }
+        } catch (BulkheadFullException e) {
+            // the bulkhead is already busy, its threads are running
+        }
+        return allDone(tasks);
+    }
+
+    private <T> CompletableFuture<Void> warmup(Supplier<? extends CompletionStage<T>> warmupSupplier, int remaining, long deadline) {
+        if (remaining <= 0 || System.nanoTime() - deadline >= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int batch = Math.min(remaining, bulkhead.getBulkheadConfig().getMaxThreadPoolSize());
+        List<CompletableFuture<T>> calls = new ArrayList<>();
+        for (int i = 0; i < batch; i++) {
+            try {
+                calls.add(warmupSupplier.get().toCompletableFuture().whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        failedCalls.incrementAndGet();
+                    } else {
+                        completedCalls.incrementAndGet();
+                    }
+                }));
+            } catch (BulkheadFullException e) {
+                failedCalls.incrementAndGet();
+            }
+        }
+        return allDone(calls).thenCompose(ignored -> warmup(warmupSupplier, remaining - batch, deadline));
+    }
+
+    private static CompletableFuture<Void> allDone(List<? extends CompletableFuture<?>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((ignored, throwable) -> null);
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * Completes when the warm-up is over.
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    public int getCompletedCalls() {
+        return completedCalls.get();
+    }
+
+    public int getFailedCalls() {
+        return failedCalls.get();
+    }
+
+    public static class Builder {
+        private final ThreadPoolBulkhead bulkhead;
+        private int warmupCalls = 1000;
+        private Duration maxWarmupDuration = Duration.ofSeconds(30);
+
+        private Builder(ThreadPoolBulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        public Builder warmupCalls(int warmupCalls) {
+            if (warmupCalls < 0) {
+                throw new IllegalArgumentException("warmupCalls must not be negative");
+            }
+            this.warmupCalls = warmupCalls;
+            return this;
+        }
+
+        public Builder maxWarmupDuration(Duration maxWarmupDuration) {
+            if (maxWarmupDuration.isNegative()) {
+                throw new IllegalArgumentException("maxWarmupDuration must not be negative");
+            }
+            this.maxWarmupDuration = maxWarmupDuration;
+            return this;
+        }
+
+        public WarmStart build() {
+            return new WarmStart(this);
+        }
+    }
+}
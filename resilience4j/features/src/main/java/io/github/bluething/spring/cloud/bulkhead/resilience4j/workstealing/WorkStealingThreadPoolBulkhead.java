@@ -0,0 +1,189 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.workstealing;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.event.ThreadPoolBulkheadEventProcessor;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallFinishedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallPermittedEvent;
+import io.github.resilience4j.bulkhead.event.BulkheadOnCallRejectedEvent;
+import io.github.resilience4j.core.ContextPropagator;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadPoolBulkhead} running on a {@link ForkJoinPool} with {@code maxThreadPoolSize} workers.
+ * Submissions land in striped submission queues and every worker has its own deque and steals from the
+ * others, so producers and consumers don't meet on one queue lock. The bounded queue is replaced by an
+ * admission counter that allows {@code maxThreadPoolSize + queueCapacity} calls in flight.
+ */
+public class WorkStealingThreadPoolBulkhead implements ThreadPoolBulkhead {
+    private final String name;
+    private final ThreadPoolBulkheadConfig config;
+    private final Map<String, String> tags;
+    private final ForkJoinPool pool;
+    private final int admissionLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final WorkStealingBulkheadMetrics metrics = new WorkStealingBulkheadMetrics();
+    private final ThreadPoolBulkheadEventProcessor eventProcessor = new ThreadPoolBulkheadEventProcessor();
+
+    public WorkStealingThreadPoolBulkhead(String name, ThreadPoolBulkheadConfig config) {
+        this(name, config, HashMap.empty());
+    }
+
+    public WorkStealingThreadPoolBulkhead(String name, ThreadPoolBulkheadConfig config, Map<String, String> tags) {
+        this.name = name;
+        this.config = config;
+        this.tags = tags;
+        this.admissionLimit = config.getMaxThreadPoolSize() + config.getQueueCapacity();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ForkJoinPool(config.getMaxThreadPoolSize(), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("bulkhead-" + name + "-" + threadCount.incrementAndGet());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Replaces the entry {@code name} of the registry with a work stealing bulkhead built from the entry's
+     * config and tags. The replaced bulkhead is closed.
+     */
+    public static WorkStealingThreadPoolBulkhead register(ThreadPoolBulkheadRegistry bulkheadRegistry, String name) {
+        ThreadPoolBulkhead template = bulkheadRegistry.bulkhead(name);
+        if (template instanceof WorkStealingThreadPoolBulkhead) {
+            return (WorkStealingThreadPoolBulkhead) template;
+        }
+        WorkStealingThreadPoolBulkhead bulkhead = new WorkStealingThreadPoolBulkhead(name, template.getBulkheadConfig(), template.getTags());
+        bulkheadRegistry.replace(name, bulkhead);
+        try {
+            template.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not close replaced bulkhead " + name, e);
+        }
+        return bulkhead;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Callable<T> callable) {
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        Callable<T> propagatingCallable = ContextPropagator.decorateCallable(config.getContextPropagator(), callable);
+        admit();
+        try {
+            pool.execute(() -> {
+                running.incrementAndGet();
+                try {
+                    promise.complete(propagatingCallable.call());
+                } catch (Throwable t) {
+                    promise.completeExceptionally(t);
+                } finally {
+                    running.decrementAndGet();
+                    inFlight.decrementAndGet();
+                    eventProcessor.publish(() -> new BulkheadOnCallFinishedEvent(name));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            eventProcessor.publish(() -> new BulkheadOnCallRejectedEvent(name));
+            throw BulkheadFullException.createBulkheadFullException(this);
+        }
+        return promise;
+    }
+
+    @Override
+    public CompletableFuture<Void> submit(Runnable runnable) {
+        return submit(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private void admit() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= admissionLimit) {
+                eventProcessor.publish(() -> new BulkheadOnCallRejectedEvent(name));
+                throw BulkheadFullException.createBulkheadFullException(this);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                eventProcessor.publish(() -> new BulkheadOnCallPermittedEvent(name));
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public ThreadPoolBulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public ThreadPoolBulkheadEventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WorkStealingThreadPoolBulkhead '%s'", name);
+    }
+
+    private class WorkStealingBulkheadMetrics implements Metrics {
+        @Override
+        public int getCoreThreadPoolSize() {
+            return config.getCoreThreadPoolSize();
+        }
+
+        @Override
+        public int getThreadPoolSize() {
+            return pool.getPoolSize();
+        }
+
+        @Override
+        public int getMaximumThreadPoolSize() {
+            return config.getMaxThreadPoolSize();
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return Math.max(0, inFlight.get() - running.get());
+        }
+
+        @Override
+        public int getRemainingQueueCapacity() {
+            return Math.max(0, config.getQueueCapacity() - getQueueDepth());
+        }
+
+        @Override
+        public int getQueueCapacity() {
+            return config.getQueueCapacity();
+        }
+    }
+}
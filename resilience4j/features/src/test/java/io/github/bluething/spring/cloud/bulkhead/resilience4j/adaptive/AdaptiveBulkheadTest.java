@@ -0,0 +1,126 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.adaptive;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveBulkheadTest {
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shortCallsFinishingWhileALongOneIsInFlightAreMeasuredOnTheirOwn() {
+        RecordingLimit recordingLimit = new RecordingLimit();
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("adaptive", config(4, Duration.ZERO), recordingLimit);
+        CompletableFuture<String> longCall = new CompletableFuture<>();
+        CompletableFuture<String> longResult = AdaptiveBulkhead.decorateCompletionStage(bulkhead, () -> longCall).get().toCompletableFuture();
+
+        Supplier<String> shortCall = AdaptiveBulkhead.decorateSupplier(bulkhead, () -> "short");
+        sleep(100);
+        for (int i = 0; i < 20; i++) {
+            shortCall.get();
+        }
+        CompletableFuture.runAsync(() -> longCall.complete("long")).join();
+
+        assertEquals("long", longResult.join());
+        assertEquals(21, recordingLimit.rttNanos.size());
+        for (long rttNanos : recordingLimit.rttNanos.subList(0, 20)) {
+            assertTrue(rttNanos < TimeUnit.MILLISECONDS.toNanos(50), "short call measured " + rttNanos + "ns");
+        }
+        long longRttNanos = recordingLimit.rttNanos.get(20);
+        assertTrue(longRttNanos >= TimeUnit.MILLISECONDS.toNanos(100), "long call measured " + longRttNanos + "ns");
+        assertEquals(4, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void onCompleteFromAnotherThreadAddsNoSample() {
+        RecordingLimit recordingLimit = new RecordingLimit();
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("adaptive", config(2, Duration.ZERO), recordingLimit);
+
+        bulkhead.acquirePermission();
+        CompletableFuture.runAsync(bulkhead::onComplete).join();
+        bulkhead.acquirePermission();
+        bulkhead.releasePermission();
+
+        assertTrue(recordingLimit.rttNanos.isEmpty(), "samples " + recordingLimit.rttNanos);
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void aimdLimitBacksOffOnSlowCallsAndGrowsOnFastOnes() {
+        AimdLimit aimdLimit = AimdLimit.custom()
+                .minLimit(1)
+                .maxLimit(20)
+                .latencyThreshold(Duration.ofMillis(20))
+                .backoffRatio(0.5)
+                .build();
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("adaptive", config(8, Duration.ZERO), aimdLimit);
+
+        AdaptiveBulkhead.decorateSupplier(bulkhead, () -> sleep(40)).get();
+        assertEquals(4, bulkhead.getLimit());
+
+        // a fast call only grows the limit while the bulkhead is at least half used
+        bulkhead.acquirePermission();
+        bulkhead.acquirePermission();
+        AdaptiveBulkhead.decorateSupplier(bulkhead, () -> "fast").get();
+        assertEquals(5, bulkhead.getLimit());
+        assertEquals(5, bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void rejectsCallsAboveTheLimit() {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("adaptive", config(2, Duration.ZERO), new RecordingLimit());
+        bulkhead.acquirePermission();
+        bulkhead.acquirePermission();
+
+        assertThrows(BulkheadFullException.class, bulkhead::acquirePermission);
+        CompletableFuture<String> rejected = AdaptiveBulkhead.decorateCompletionStage(bulkhead,
+                () -> CompletableFuture.completedFuture("flights")).get().toCompletableFuture();
+
+        assertTrue(rejected.isCompletedExceptionally(), "the call above the limit was not rejected");
+        bulkhead.onComplete();
+        bulkhead.onComplete();
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    private static BulkheadConfig config(int maxConcurrentCalls, Duration maxWaitDuration) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build();
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+
+    // keeps the limit and records every latency it is fed
+    private static class RecordingLimit implements LimitAlgorithm {
+        private final List<Long> rttNanos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int update(int currentLimit, long rttNanos, int inFlight) {
+            this.rttNanos.add(rttNanos);
+            return currentLimit;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.codel;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoDelThreadPoolBulkheadTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void dropsOnlyOnceTheDelayStayedAboveTargetForAWholeInterval() {
+        CoDelController controller = new CoDelController(Duration.ofMillis(5), Duration.ofMillis(100));
+
+        assertFalse(controller.shouldDrop(10 * MILLIS, 0, false));
+        assertFalse(controller.shouldDrop(10 * MILLIS, 50 * MILLIS, false));
+        assertTrue(controller.shouldDrop(10 * MILLIS, 100 * MILLIS, false));
+        assertTrue(controller.isDropping());
+
+        // the next drops come at interval / sqrt(drops)
+        assertFalse(controller.shouldDrop(10 * MILLIS, 150 * MILLIS, false));
+        assertTrue(controller.shouldDrop(10 * MILLIS, 200 * MILLIS, false));
+        assertFalse(controller.shouldDrop(10 * MILLIS, 250 * MILLIS, false));
+        assertTrue(controller.shouldDrop(10 * MILLIS, 271 * MILLIS, false));
+        assertEquals(3, controller.getDroppedCount());
+
+        assertFalse(controller.shouldDrop(MILLIS, 300 * MILLIS, false));
+        assertFalse(controller.isDropping());
+    }
+
+    @Test
+    void neverDropsTheLastTaskOfTheQueue() {
+        CoDelController controller = new CoDelController(Duration.ofMillis(5), Duration.ofMillis(100));
+
+        for (long now = 0; now < 1000 * MILLIS; now += 50 * MILLIS) {
+            assertFalse(controller.shouldDrop(500 * MILLIS, now, true));
+        }
+        assertEquals(0, controller.getDroppedCount());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void dropsQueuedTasksInOrderWithoutLifo() throws Exception {
+        Overload overload = new Overload(false);
+
+        overload.run();
+
+        assertTrue(overload.bulkhead.getDroppedCount() > 0, "no task was dropped");
+        assertEquals(overload.bulkhead.getDroppedCount(), overload.dropped);
+        for (int i = 1; i < overload.ran.size(); i++) {
+            assertTrue(overload.ran.get(i - 1) < overload.ran.get(i), "not run in order " + overload.ran);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void servesTheNewestTaskFirstWhileOverloaded() throws Exception {
+        Overload overload = new Overload(true);
+
+        overload.run();
+
+        assertTrue(overload.bulkhead.getDroppedCount() > 0, "no task was dropped");
+        assertEquals(overload.bulkhead.getDroppedCount(), overload.dropped);
+        assertTrue(overload.ran.contains(Overload.TASKS - 1), "the newest task did not run " + overload.ran);
+        boolean newerBeforeOlder = false;
+        for (int i = 1; i < overload.ran.size(); i++) {
+            newerBeforeOlder |= overload.ran.get(i - 1) > overload.ran.get(i);
+        }
+        assertTrue(newerBeforeOlder, "run in order " + overload.ran);
+    }
+
+    // one worker is blocked while tasks pile up far above target, then each task takes more than half of the
+    // interval, so the controller goes into dropping within the first few tasks
+    private static class Overload {
+        static final int TASKS = 10;
+
+        private final CoDelThreadPoolBulkhead bulkhead;
+        private final List<Integer> ran = new CopyOnWriteArrayList<>();
+        private long dropped;
+
+        Overload(boolean lifoUnderOverload) {
+            this.bulkhead = new CoDelThreadPoolBulkhead("codel", ThreadPoolBulkheadConfig.custom()
+                    .maxThreadPoolSize(1)
+                    .coreThreadPoolSize(1)
+                    .queueCapacity(16)
+                    .build(), new CoDelController(Duration.ofMillis(1), Duration.ofMillis(5)), lifoUnderOverload);
+        }
+
+        void run() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            bulkhead.submit(() -> {
+                release.await();
+                return null;
+            });
+            List<CompletableFuture<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < TASKS; i++) {
+                int index = i;
+                tasks.add(bulkhead.submit(() -> {
+                    Thread.sleep(3);
+                    ran.add(index);
+                    return index;
+                }));
+            }
+            Thread.sleep(30);
+            release.countDown();
+
+            for (CompletableFuture<Integer> task : tasks) {
+                try {
+                    task.join();
+                } catch (RuntimeException e) {
+                    assertTrue(e.getCause() instanceof BulkheadFullException, e.toString());
+                    dropped++;
+                }
+            }
+            bulkhead.close();
+        }
+    }
+}
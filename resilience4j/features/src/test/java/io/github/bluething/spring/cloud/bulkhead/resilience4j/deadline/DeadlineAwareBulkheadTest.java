@@ -0,0 +1,127 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineAwareBulkheadTest {
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void onCompleteFromAnotherThreadKeepsTheServiceTime() throws Exception {
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead("deadline", config(2, Duration.ZERO), Duration.ofMillis(100));
+
+        bulkhead.acquirePermission();
+        Thread.sleep(20);
+        CompletableFuture.runAsync(bulkhead::onComplete).get();
+
+        assertEquals(Duration.ofMillis(100), bulkhead.getServiceTime());
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void decoratedCompletionStageMeasuresEachCall() {
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead("deadline", config(4, Duration.ZERO), Duration.ZERO);
+        Supplier<CompletionStage<String>> slow = DeadlineAwareBulkhead.decorateCompletionStage(bulkhead,
+                () -> CompletableFuture.supplyAsync(() -> sleep(50)));
+
+        for (int i = 0; i < 3; i++) {
+            slow.get().toCompletableFuture().join();
+        }
+
+        // three samples of at least 50ms smoothed from 0 give at least 24ms
+        Duration serviceTime = bulkhead.getServiceTime();
+        assertTrue(serviceTime.compareTo(Duration.ofMillis(24)) >= 0, "service time " + serviceTime);
+        assertTrue(serviceTime.compareTo(Duration.ofSeconds(1)) < 0, "service time " + serviceTime);
+        assertEquals(4, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shortCallsFinishingAroundALongOneAreMeasuredOnTheirOwn() {
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead("deadline", config(4, Duration.ZERO), Duration.ofMillis(10));
+        CompletableFuture<String> longCall = new CompletableFuture<>();
+        DeadlineAwareBulkhead.decorateCompletionStage(bulkhead, () -> longCall).get();
+
+        Supplier<String> shortCall = DeadlineAwareBulkhead.decorateSupplier(bulkhead, () -> "short");
+        for (int i = 0; i < 20; i++) {
+            shortCall.get();
+        }
+        sleep(100);
+        for (int i = 0; i < 20; i++) {
+            shortCall.get();
+        }
+
+        assertTrue(bulkhead.getServiceTime().compareTo(Duration.ofMillis(10)) < 0, "service time " + bulkhead.getServiceTime());
+        longCall.complete("long");
+        assertEquals(4, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void rejectsAtOnceWhenTheServiceTimeMissesTheDeadline() {
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead("deadline", config(1, Duration.ofSeconds(5)), Duration.ofSeconds(1));
+        Supplier<String> call = DeadlineAwareBulkhead.decorateSupplier(bulkhead, () -> "flights");
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> Deadline.after(Duration.ofMillis(200)).bind(call).get());
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void waitsNoLongerThanTheDeadlineAllows() {
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead("deadline", config(1, Duration.ofSeconds(5)), Duration.ofMillis(50));
+        bulkhead.acquirePermission();
+        Supplier<String> call = DeadlineAwareBulkhead.decorateSupplier(bulkhead, () -> "flights");
+
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class, () -> Deadline.after(Duration.ofMillis(300)).bind(call).get());
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waitedMillis < 300, "waited " + waitedMillis + "ms");
+        bulkhead.onComplete();
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void changeConfigResizesThePermits() {
+        DeadlineAwareBulkhead bulkhead = new DeadlineAwareBulkhead("deadline", config(2, Duration.ZERO), Duration.ofMillis(10));
+
+        bulkhead.changeConfig(config(5, Duration.ZERO));
+        assertEquals(5, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        bulkhead.changeConfig(config(1, Duration.ZERO));
+
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        assertEquals(1, bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+    }
+
+    private static BulkheadConfig config(int maxConcurrentCalls, Duration maxWaitDuration) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build();
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+}
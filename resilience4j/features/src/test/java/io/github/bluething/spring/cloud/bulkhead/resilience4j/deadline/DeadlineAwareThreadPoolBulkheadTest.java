@@ -0,0 +1,75 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.deadline;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineAwareThreadPoolBulkheadTest {
+    private final ThreadPoolBulkhead bulkhead = ThreadPoolBulkhead.of("deadline", ThreadPoolBulkheadConfig.custom()
+            .maxThreadPoolSize(1)
+            .coreThreadPoolSize(1)
+            .queueCapacity(4)
+            .build());
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bulkhead.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void interruptsARunningCallAtItsDeadline() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Supplier<CompletableFuture<String>> call = () -> DeadlineAwareThreadPoolBulkhead.decorateSupplier(bulkhead, () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "flights";
+        }).get().toCompletableFuture();
+
+        CompletableFuture<String> result = Deadline.after(Duration.ofMillis(100)).bind(call).get();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+        assertTrue(failure.getCause() instanceof DeadlineExceededException, failure.getCause().toString());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "the running call was not interrupted");
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void skipsAQueuedCallWhoseDeadlineHasPassed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        bulkhead.submit(() -> {
+            release.await();
+            return null;
+        });
+        AtomicBoolean ran = new AtomicBoolean();
+        Supplier<CompletableFuture<String>> call = () -> DeadlineAwareThreadPoolBulkhead.decorateSupplier(bulkhead, () -> {
+            ran.set(true);
+            return "flights";
+        }).get().toCompletableFuture();
+
+        CompletableFuture<String> result = Deadline.after(Duration.ofMillis(50)).bind(call).get();
+        ExecutionException failure = assertThrows(ExecutionException.class, result::get);
+        release.countDown();
+        bulkhead.submit(() -> null).toCompletableFuture().get();
+
+        assertTrue(failure.getCause() instanceof DeadlineExceededException, failure.getCause().toString());
+        assertFalse(ran.get(), "a call past its deadline was run");
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.distributed;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DistributedBulkheadTest {
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void callsInFlightNeverExceedTheGlobalLimit() throws Exception {
+        InMemoryPermitCoordinator coordinator = new InMemoryPermitCoordinator(4, Duration.ofSeconds(5));
+        DistributedBulkhead nodeA = new DistributedBulkhead("flights", config(Duration.ofMillis(5)), coordinator, "node-a", 2);
+        DistributedBulkhead nodeB = new DistributedBulkhead("flights", config(Duration.ofMillis(5)), coordinator, "node-b", 2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong permitted = new AtomicLong();
+        AtomicLong overLimit = new AtomicLong();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            DistributedBulkhead node = i % 2 == 0 ? nodeA : nodeB;
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    if (!node.tryAcquirePermission()) {
+                        continue;
+                    }
+                    if (inFlight.incrementAndGet() > 4) {
+                        overLimit.incrementAndGet();
+                    }
+                    permitted.incrementAndGet();
+                    Thread.yield();
+                    inFlight.decrementAndGet();
+                    node.onComplete();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        nodeA.close();
+        nodeB.close();
+
+        assertTrue(permitted.get() > 0, "no call was permitted");
+        assertEquals(0, overLimit.get(), "calls in flight above the global limit");
+        assertEquals(4, coordinator.getAvailablePermits());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void keepsAtMostOneIdleBlock() {
+        InMemoryPermitCoordinator coordinator = new InMemoryPermitCoordinator(8, Duration.ofSeconds(5));
+        DistributedBulkhead node = new DistributedBulkhead("flights", config(Duration.ZERO), coordinator, "node-a", 2);
+
+        for (int i = 0; i < 6; i++) {
+            node.acquirePermission();
+        }
+        assertEquals(6, coordinator.getLeasedPermits("node-a"));
+        for (int i = 0; i < 6; i++) {
+            node.onComplete();
+        }
+
+        assertEquals(2, node.getLeasedPermits());
+        assertEquals(6, coordinator.getAvailablePermits());
+        node.close();
+        assertEquals(8, coordinator.getAvailablePermits());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void waitsForPermitsGivenBackByAnotherNode() throws Exception {
+        InMemoryPermitCoordinator coordinator = new InMemoryPermitCoordinator(2, Duration.ofSeconds(5));
+        DistributedBulkhead nodeA = new DistributedBulkhead("flights", config(Duration.ZERO), coordinator, "node-a", 1);
+        DistributedBulkhead nodeB = new DistributedBulkhead("flights", config(Duration.ofSeconds(2)), coordinator, "node-b", 1);
+        nodeA.acquirePermission();
+        nodeA.acquirePermission();
+        assertFalse(nodeA.tryAcquirePermission());
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(nodeB::tryAcquirePermission);
+        Thread.sleep(100);
+        nodeA.onComplete();
+        nodeA.onComplete();
+
+        assertTrue(waiting.get(), "node-b got no permit");
+        nodeB.onComplete();
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void changeConfigTakesTheWaitAndIgnoresTheLimit() {
+        InMemoryPermitCoordinator coordinator = new InMemoryPermitCoordinator(2, Duration.ofSeconds(5));
+        DistributedBulkhead node = new DistributedBulkhead("flights", config(Duration.ZERO), coordinator, "node-a", 1);
+        BulkheadConfig newConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(50)
+                .maxWaitDuration(Duration.ofMillis(20))
+                .build();
+
+        node.changeConfig(newConfig);
+        node.acquirePermission();
+        node.acquirePermission();
+        long start = System.nanoTime();
+        assertFalse(node.tryAcquirePermission());
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20), "did not wait the new maxWaitDuration");
+        assertEquals(newConfig, node.getBulkheadConfig());
+        node.close();
+    }
+
+    private static BulkheadConfig config(Duration maxWaitDuration) {
+        return BulkheadConfig.custom()
+                .maxWaitDuration(maxWaitDuration)
+                .build();
+    }
+}
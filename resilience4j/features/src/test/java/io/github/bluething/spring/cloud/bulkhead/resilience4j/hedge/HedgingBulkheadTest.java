@@ -0,0 +1,121 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.hedge;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingBulkheadTest {
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void callsFinishingBeforeTheDelayLeaveNoHedgeScheduled() {
+        HedgingBulkhead hedgingBulkhead = HedgingBulkhead.custom(bulkhead(4), executorService, new SimpleMeterRegistry())
+                .initialDelay(Duration.ofSeconds(30))
+                .minSamples(256)
+                .build();
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            calls.add(hedgingBulkhead.execute(() -> "flights"));
+        }
+        calls.forEach(CompletableFuture::join);
+
+        assertEquals(0, hedgingBulkhead.getScheduledHedges());
+        assertEquals(0, hedgingBulkhead.getHedgeRate());
+        hedgingBulkhead.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void aSlowPrimaryIsHedgedAndInterruptedWhenTheHedgeWins() throws InterruptedException {
+        HedgingBulkhead hedgingBulkhead = HedgingBulkhead.custom(bulkhead(2), executorService, new SimpleMeterRegistry())
+                .initialDelay(Duration.ofMillis(50))
+                .build();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        String result = hedgingBulkhead.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        }).join();
+
+        assertEquals("hedge", result);
+        // the winner counts its win before it interrupts the primary
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "the primary was not interrupted");
+        assertEquals(1, hedgingBulkhead.getHedgeRate());
+        assertEquals(1, hedgingBulkhead.getWinRate());
+        hedgingBulkhead.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void sendsNoHedgeWhenTheBulkheadIsFull() {
+        Bulkhead bulkhead = bulkhead(1);
+        HedgingBulkhead hedgingBulkhead = HedgingBulkhead.custom(bulkhead, executorService, new SimpleMeterRegistry())
+                .initialDelay(Duration.ofMillis(20))
+                .build();
+
+        String result = hedgingBulkhead.execute(() -> sleep(200)).join();
+
+        assertEquals("slept", result);
+        assertEquals(0, hedgingBulkhead.getHedgeRate());
+        assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        hedgingBulkhead.close();
+    }
+
+    @Test
+    void rejectsABulkheadThatWaits() {
+        Bulkhead bulkhead = Bulkhead.of("hedge", BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofMillis(10))
+                .build());
+
+        assertThrows(IllegalArgumentException.class, () -> HedgingBulkhead.custom(bulkhead, executorService, new SimpleMeterRegistry()).build());
+    }
+
+    private static Bulkhead bulkhead(int maxConcurrentCalls) {
+        return Bulkhead.of("hedge", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.reload;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.workstealing.WorkStealingThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadConfigReloaderTest {
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(4)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+            .coreThreadPoolSize(1)
+            .maxThreadPoolSize(1)
+            .queueCapacity(2)
+            .build());
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ThreadPoolBulkhead bulkhead : threadPoolBulkheadRegistry.getAllBulkheads()) {
+            bulkhead.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void aShrinkWaitsForTheCallsInFlight() throws Exception {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("flights");
+        for (int i = 0; i < 3; i++) {
+            bulkhead.acquirePermission();
+        }
+        BulkheadConfigReloader reloader = reloader("bulkhead.flights.maxConcurrentCalls=1", "bulkhead.flights.maxWaitDuration=PT1S");
+
+        CompletableFuture<Void> reload = reloader.reload();
+        Thread.sleep(100);
+        assertFalse(reload.isDone(), "the shrink did not wait for the calls in flight");
+        bulkhead.onComplete();
+        bulkhead.onComplete();
+        reload.get();
+
+        assertEquals(1, bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+        assertEquals(Duration.ofSeconds(1), bulkhead.getBulkheadConfig().getMaxWaitDuration());
+        assertEquals(0, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        bulkhead.onComplete();
+        reloader.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void replacesAThreadPoolBulkheadWithOneOfTheNewSizes() throws Exception {
+        ThreadPoolBulkhead replaced = threadPoolBulkheadRegistry.bulkhead("flights");
+        BulkheadConfigReloader reloader = reloader(
+                "threadPoolBulkhead.flights.coreThreadPoolSize=2",
+                "threadPoolBulkhead.flights.maxThreadPoolSize=3",
+                "threadPoolBulkhead.flights.queueCapacity=5");
+
+        reloader.reload().get();
+
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flights");
+        assertNotSame(replaced, bulkhead);
+        assertEquals(2, bulkhead.getBulkheadConfig().getCoreThreadPoolSize());
+        assertEquals(3, bulkhead.getBulkheadConfig().getMaxThreadPoolSize());
+        assertEquals(5, bulkhead.getBulkheadConfig().getQueueCapacity());
+        assertEquals("flights", bulkhead.submit(() -> "flights").toCompletableFuture().get());
+
+        // the same file again changes nothing
+        reloader.reload().get();
+        assertSame(bulkhead, threadPoolBulkheadRegistry.bulkhead("flights"));
+        reloader.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void keepsTheImplementationOfAReplacedBulkhead() throws Exception {
+        WorkStealingThreadPoolBulkhead.register(threadPoolBulkheadRegistry, "flights");
+        BulkheadConfigReloader reloader = reloader("threadPoolBulkhead.flights.maxThreadPoolSize=2");
+
+        reloader.reload().get();
+
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flights");
+        assertTrue(bulkhead instanceof WorkStealingThreadPoolBulkhead, bulkhead.toString());
+        assertEquals(2, bulkhead.getBulkheadConfig().getMaxThreadPoolSize());
+        reloader.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void rejectsACoreSizeAboveTheMaxSize() throws Exception {
+        ThreadPoolBulkhead bulkhead = threadPoolBulkheadRegistry.bulkhead("flights");
+        BulkheadConfigReloader reloader = reloader(
+                "threadPoolBulkhead.flights.coreThreadPoolSize=3",
+                "threadPoolBulkhead.flights.maxThreadPoolSize=2");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> reloader.reload().get());
+
+        assertTrue(failure.getCause() instanceof IllegalArgumentException, failure.getCause().toString());
+        assertSame(bulkhead, threadPoolBulkheadRegistry.bulkhead("flights"));
+        reloader.close();
+    }
+
+    private BulkheadConfigReloader reloader(String... lines) throws IOException {
+        Path file = Files.write(directory.resolve("bulkhead.properties"), Arrays.asList(lines));
+        return new BulkheadConfigReloader(file, bulkheadRegistry, threadPoolBulkheadRegistry);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.scatter;
+
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.Flight;
+import io.github.bluething.spring.cloud.bulkhead.resilience4j.flight.SearchRequest;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScatterGatherSearchTest {
+    private static final SearchRequest SEARCH_REQUEST = new SearchRequest("NYC", "LAX", "07/03/2021");
+    private static final Flight XY_765 = flight("XY 765");
+    private static final Flight XY_746 = flight("XY 746");
+    private static final Flight XY_781 = flight("XY 781");
+
+    private final List<ThreadPoolBulkhead> bulkheads = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        for (ThreadPoolBulkhead bulkhead : bulkheads) {
+            bulkhead.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void mergesTheFlightsOnceEveryProviderAnswered() {
+        ScatterGatherSearch search = ScatterGatherSearch.custom()
+                .provider(bulkhead("first"), request -> Arrays.asList(XY_765, XY_746))
+                .provider(bulkhead("second"), request -> Arrays.asList(XY_746, XY_781))
+                .provider(bulkhead("empty"), request -> null)
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        ScatterGatherResult result = search.search(SEARCH_REQUEST).join();
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "the search waited for the timeout");
+        assertFalse(result.isPartial(), result.toString());
+        assertEquals(3, result.getFlights().size());
+        assertTrue(result.getFlights().containsAll(Arrays.asList(XY_765, XY_746, XY_781)), result.toString());
+        assertEquals(3, result.getCompletedProviders().size());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void returnsWhatHasArrivedWhenTheTimeoutIsOver() {
+        ScatterGatherSearch search = ScatterGatherSearch.custom()
+                .provider(bulkhead("fast"), request -> Collections.singletonList(XY_765))
+                .provider(bulkhead("slow"), request -> {
+                    awaitRelease();
+                    return Collections.singletonList(XY_746);
+                })
+                .timeout(Duration.ofMillis(200))
+                .build();
+
+        ScatterGatherResult result = search.search(SEARCH_REQUEST).join();
+
+        assertTrue(result.isPartial());
+        assertEquals(Collections.singletonList(XY_765), result.getFlights());
+        assertEquals(Collections.singletonList("fast"), result.getCompletedProviders());
+        assertEquals(Collections.singletonList("slow"), result.getTimedOutProviders());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void skipsAFullProviderAndKeepsTheFailureOfAnother() {
+        ThreadPoolBulkhead full = bulkhead("full");
+        full.submit(this::awaitRelease);
+        full.submit(this::awaitRelease);
+        ScatterGatherSearch search = ScatterGatherSearch.custom()
+                .provider(bulkhead("ok"), request -> Collections.singletonList(XY_765))
+                .provider(bulkhead("failing"), request -> {
+                    throw new IllegalStateException("provider down");
+                })
+                .provider(full, request -> Collections.singletonList(XY_746))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        ScatterGatherResult result = search.search(SEARCH_REQUEST).join();
+
+        assertTrue(result.isPartial());
+        assertEquals(Collections.singletonList(XY_765), result.getFlights());
+        assertEquals(Collections.singletonList("full"), result.getSkippedProviders());
+        assertTrue(result.getFailedProviders().containsKey("failing"), result.toString());
+        assertTrue(result.getTimedOutProviders().isEmpty(), result.toString());
+    }
+
+    @Test
+    void rejectsTwoProvidersWithTheSameName() {
+        ScatterGatherSearch.Builder builder = ScatterGatherSearch.custom()
+                .provider(bulkhead("flights"), request -> Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> builder.provider(bulkhead("flights"), request -> Collections.emptyList()));
+    }
+
+    // one thread and one queued task, so a third task finds the bulkhead full
+    private ThreadPoolBulkhead bulkhead(String name) {
+        ThreadPoolBulkhead bulkhead = ThreadPoolBulkhead.of(name, ThreadPoolBulkheadConfig.custom()
+                .maxThreadPoolSize(1)
+                .coreThreadPoolSize(1)
+                .queueCapacity(1)
+                .build());
+        bulkheads.add(bulkhead);
+        return bulkhead;
+    }
+
+    private List<Flight> awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Collections.emptyList();
+    }
+
+    private static Flight flight(String flightNumber) {
+        return new Flight(flightNumber, SEARCH_REQUEST.getFlightDate(), SEARCH_REQUEST.getFrom(), SEARCH_REQUEST.getTo());
+    }
+}
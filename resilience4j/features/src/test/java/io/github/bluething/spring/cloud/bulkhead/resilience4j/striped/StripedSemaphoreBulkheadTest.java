@@ -0,0 +1,125 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.striped;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.vavr.collection.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedSemaphoreBulkheadTest {
+    private static final int THREADS = 16;
+    private static final int CELLS = 8;
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void inFlightCallsNeverExceedTheLimit() throws InterruptedException {
+        StripedSemaphoreBulkhead bulkhead = new StripedSemaphoreBulkhead("striped", config(5, Duration.ZERO), CELLS, HashMap.empty());
+        Hammer hammer = new Hammer(bulkhead, 5);
+
+        hammer.start();
+        Thread.sleep(1000);
+        hammer.stop();
+
+        assertTrue(hammer.permitted.get() > 0, "no call was permitted");
+        assertEquals(0, hammer.overLimit.get(), "calls in flight above the limit");
+        assertEquals(5, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void inFlightCallsNeverExceedTheLimitWhileResizing() throws InterruptedException {
+        for (Duration maxWaitDuration : new Duration[]{Duration.ZERO, Duration.ofMillis(5)}) {
+            StripedSemaphoreBulkhead bulkhead = new StripedSemaphoreBulkhead("striped", config(10, maxWaitDuration), CELLS, HashMap.empty());
+            Hammer hammer = new Hammer(bulkhead, 10);
+
+            hammer.start();
+            int[] limits = {4, 16, 1, 12, 3, 10};
+            for (int limit : limits) {
+                Thread.sleep(150);
+                hammer.resize(limit, maxWaitDuration);
+            }
+            Thread.sleep(150);
+            hammer.stop();
+
+            assertTrue(hammer.permitted.get() > 0, "no call was permitted");
+            assertEquals(0, hammer.overLimit.get(), "calls in flight above the limit with maxWaitDuration " + maxWaitDuration);
+            assertEquals(10, bulkhead.getMetrics().getAvailableConcurrentCalls());
+            assertEquals(10, bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+        }
+    }
+
+    private static BulkheadConfig config(int maxConcurrentCalls, Duration maxWaitDuration) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build();
+    }
+
+    // acquires and releases from many threads and counts every permit that takes the calls in flight above the limit
+    private static class Hammer {
+        private final StripedSemaphoreBulkhead bulkhead;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong permitted = new AtomicLong();
+        private final AtomicLong overLimit = new AtomicLong();
+        private volatile int limit;
+        private volatile boolean running = true;
+
+        Hammer(StripedSemaphoreBulkhead bulkhead, int limit) {
+            this.bulkhead = bulkhead;
+            this.limit = limit;
+        }
+
+        void start() {
+            for (int i = 0; i < THREADS; i++) {
+                Thread thread = new Thread(this::hammer, "hammer-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void hammer() {
+            while (running) {
+                int limitBefore = limit;
+                if (!bulkhead.tryAcquirePermission()) {
+                    continue;
+                }
+                if (inFlight.incrementAndGet() > Math.max(limitBefore, limit)) {
+                    overLimit.incrementAndGet();
+                }
+                permitted.incrementAndGet();
+                Thread.yield();
+                inFlight.decrementAndGet();
+                bulkhead.onComplete();
+            }
+        }
+
+        // a call that started acquiring before a shrink is checked against the old limit, and the checked limit
+        // rises before the bulkhead grows
+        void resize(int newLimit, Duration maxWaitDuration) {
+            if (newLimit > limit) {
+                limit = newLimit;
+                bulkhead.changeConfig(config(newLimit, maxWaitDuration));
+            } else {
+                bulkhead.changeConfig(config(newLimit, maxWaitDuration));
+                limit = newLimit;
+            }
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+    }
+}
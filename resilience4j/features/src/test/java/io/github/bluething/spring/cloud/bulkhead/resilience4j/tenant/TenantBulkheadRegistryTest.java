@@ -0,0 +1,138 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.tenant;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TenantBulkheadRegistryTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedTenantAtMaxTenants() {
+        TenantBulkheadRegistry<String> registry = TenantBulkheadRegistry.<String>custom("tenant", config())
+                .maxTenants(2)
+                .minEvictableIdleTime(Duration.ZERO)
+                .build();
+
+        Bulkhead a = registry.bulkhead("a");
+        registry.bulkhead("b");
+        assertSame(a, registry.bulkhead("a"));
+        registry.bulkhead("c");
+
+        assertEquals(2, registry.size());
+        assertTrue(registry.contains("a"));
+        assertFalse(registry.contains("b"));
+        assertTrue(registry.contains("c"));
+    }
+
+    @Test
+    void sharesTheOverflowBulkheadWhileEveryTenantHasCallsInFlight() {
+        TenantBulkheadRegistry<String> registry = TenantBulkheadRegistry.<String>custom("tenant", config())
+                .maxTenants(1)
+                .minEvictableIdleTime(Duration.ZERO)
+                .build();
+        Bulkhead a = registry.bulkhead("a");
+        a.acquirePermission();
+
+        assertSame(registry.getOverflowBulkhead(), registry.bulkhead("b"));
+        assertFalse(registry.contains("b"));
+        a.onComplete();
+
+        assertNotSame(registry.getOverflowBulkhead(), registry.bulkhead("b"));
+        assertFalse(registry.contains("a"));
+    }
+
+    @Test
+    void neverEvictsATenantHandedOutLessThanMinEvictableIdleTimeAgo() {
+        TenantBulkheadRegistry<String> registry = TenantBulkheadRegistry.<String>custom("tenant", config())
+                .maxTenants(1)
+                .minEvictableIdleTime(Duration.ofHours(1))
+                .build();
+        registry.bulkhead("a");
+
+        assertSame(registry.getOverflowBulkhead(), registry.bulkhead("b"));
+        assertTrue(registry.contains("a"));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void evictsTenantsIdleForIdleTimeout() throws InterruptedException {
+        TenantBulkheadRegistry<String> registry = TenantBulkheadRegistry.<String>custom("tenant", config())
+                .idleTimeout(Duration.ofMillis(50))
+                .minEvictableIdleTime(Duration.ZERO)
+                .build();
+        registry.bulkhead("a");
+        registry.bulkhead("b");
+
+        Thread.sleep(100);
+        registry.bulkhead("c");
+
+        assertEquals(1, registry.size());
+        assertTrue(registry.contains("c"));
+    }
+
+    @Test
+    void taggedCountFollowsTheEvictedTenants() {
+        TenantBulkheadRegistry<String> registry = TenantBulkheadRegistry.<String>custom("tenant", config())
+                .maxTenants(2)
+                .maxTaggedTenants(1)
+                .minEvictableIdleTime(Duration.ZERO)
+                .build();
+
+        registry.bulkhead("a");
+        registry.bulkhead("b");
+        assertEquals(names("tenant-overflow", "tenant-a"), taggedNames(registry));
+
+        // evicting the untagged b frees no tagged slot
+        registry.bulkhead("a");
+        registry.bulkhead("c");
+        assertEquals(names("tenant-overflow", "tenant-a"), taggedNames(registry));
+
+        // evicting the tagged a gives its slot to d
+        registry.bulkhead("c");
+        registry.bulkhead("d");
+        assertEquals(names("tenant-overflow", "tenant-d"), taggedNames(registry));
+    }
+
+    @Test
+    void tagsOnlyTheFirstOfKeysWithTheSameName() {
+        TenantBulkheadRegistry<Integer> registry = TenantBulkheadRegistry.<Integer>custom("tenant", config())
+                .keyName(key -> "route")
+                .minEvictableIdleTime(Duration.ZERO)
+                .build();
+
+        Bulkhead first = registry.bulkhead(1);
+        Bulkhead second = registry.bulkhead(2);
+
+        assertNotSame(first, second);
+        assertEquals(names("tenant-overflow", "tenant-route"), taggedNames(registry));
+        assertSame(first, registry.getBulkheadRegistry().bulkhead("tenant-route"));
+    }
+
+    private static BulkheadConfig config() {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+    }
+
+    private static Set<String> taggedNames(TenantBulkheadRegistry<?> registry) {
+        return registry.getBulkheadRegistry().getAllBulkheads().map(Bulkhead::getName).toJavaSet();
+    }
+
+    private static Set<String> names(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+}
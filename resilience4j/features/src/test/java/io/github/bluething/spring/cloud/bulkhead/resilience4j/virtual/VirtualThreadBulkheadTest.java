@@ -0,0 +1,51 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.virtual;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadBulkheadTest {
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void aCallFindingEveryThreadBusyIsPublishedAsRejected() throws Exception {
+        Bulkhead semaphoreBulkhead = Bulkhead.of("virtual", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        AtomicInteger rejected = new AtomicInteger();
+        semaphoreBulkhead.getEventPublisher().onCallRejected(event -> rejected.incrementAndGet());
+        // the platform thread fallback with no waiting calls, whatever the JDK
+        VirtualThreadBulkhead bulkhead = new VirtualThreadBulkhead(semaphoreBulkhead,
+                new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new SynchronousQueue<>()));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = bulkhead.submit(() -> {
+            release.await();
+            return null;
+        }).toCompletableFuture();
+
+        CompletableFuture<String> busy = bulkhead.submit(() -> "flights").toCompletableFuture();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, busy::get);
+        assertTrue(failure.getCause() instanceof BulkheadFullException, failure.getCause().toString());
+        assertEquals(1, rejected.get());
+        release.countDown();
+        running.get();
+        bulkhead.close();
+    }
+}
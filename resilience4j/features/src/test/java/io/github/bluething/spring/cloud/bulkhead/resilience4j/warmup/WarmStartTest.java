@@ -0,0 +1,101 @@
+package io.github.bluething.spring.cloud.bulkhead.resilience4j.warmup;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarmStartTest {
+    private final ThreadPoolBulkhead bulkhead = ThreadPoolBulkhead.of("warmup", ThreadPoolBulkheadConfig.custom()
+            .maxThreadPoolSize(2)
+            .coreThreadPoolSize(2)
+            .queueCapacity(10)
+            .build());
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bulkhead.close();
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void isReadyOnceEveryWarmupCallIsDone() throws Exception {
+        WarmStart warmStart = WarmStart.custom(bulkhead)
+                .warmupCalls(20)
+                .build();
+
+        warmStart.start(ThreadPoolBulkhead.decorateSupplier(bulkhead, () -> "flights")).get();
+
+        assertTrue(warmStart.isReady());
+        assertEquals(20, warmStart.getCompletedCalls());
+        assertEquals(0, warmStart.getFailedCalls());
+        assertEquals(2, bulkhead.getMetrics().getThreadPoolSize());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void failedWarmupCallsDoNotKeepItFromBeingReady() throws Exception {
+        WarmStart warmStart = WarmStart.custom(bulkhead)
+                .warmupCalls(10)
+                .build();
+
+        warmStart.start(ThreadPoolBulkhead.decorateSupplier(bulkhead, () -> {
+            throw new IllegalStateException("no flights");
+        })).get();
+
+        assertEquals(0, warmStart.getCompletedCalls());
+        assertEquals(10, warmStart.getFailedCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void aHungWarmupCallDoesNotHoldTheSignalBack() throws Exception {
+        WarmStart warmStart = WarmStart.custom(bulkhead)
+                .warmupCalls(10)
+                .maxWarmupDuration(Duration.ofMillis(200))
+                .build();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> ready = warmStart.start(CompletableFuture::new);
+        assertFalse(warmStart.isReady());
+        ready.get();
+
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waitedMillis >= 150 && waitedMillis < 2000, "ready after " + waitedMillis + "ms");
+        assertEquals(0, warmStart.getCompletedCalls());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void startsNoBatchAfterTheDeadline() throws Exception {
+        WarmStart warmStart = WarmStart.custom(bulkhead)
+                .warmupCalls(100)
+                .maxWarmupDuration(Duration.ofMillis(250))
+                .build();
+
+        warmStart.start(ThreadPoolBulkhead.decorateSupplier(bulkhead, () -> sleep(100))).get();
+        Thread.sleep(500);
+
+        // batches of two calls of 100ms each, at most three batches start within 250ms
+        int calls = warmStart.getCompletedCalls() + warmStart.getFailedCalls();
+        assertTrue(calls > 0 && calls <= 6, calls + " warm-up calls");
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+}